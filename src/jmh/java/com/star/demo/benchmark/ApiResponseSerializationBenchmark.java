@@ -0,0 +1,56 @@
+package com.star.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.star.demo.common.ApiResponse;
+import com.star.demo.model.Order;
+import com.star.demo.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "100"})
+    private int orderCount;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Order>> response;
+
+    @Setup
+    public void setUp() {
+        // 与 Spring MVC 使用相同的默认配置
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Order> orders = new ArrayList<>();
+        for (long i = 0; i < orderCount; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (long j = 0; j < 3; j++) {
+                items.add(OrderItem.builder().id(i * 3 + j).orderId(i).productId(j + 1).quantity(2).price(10.0).build());
+            }
+            orders.add(Order.builder()
+                .id(i)
+                .userId(1L)
+                .totalPrice(60.0)
+                .status("PENDING")
+                .createdAt(LocalDateTime.now())
+                .address("上海市")
+                .phone("13800000000")
+                .items(items)
+                .build());
+        }
+        response = ApiResponse.success(orders);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,63 @@
+package com.star.demo.benchmark;
+
+import com.star.demo.security.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "0000000000000000000000000000YOU_NEED_TO_CHANGE_IT000000000";
+
+    private JwtUtil jwtUtil;
+    private SecretKey key;
+    private String token;
+
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationInSeconds", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 10000L);
+        ReflectionTestUtils.setField(jwtUtil, "renewWindowInSeconds", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = jwtUtil.generateToken("demo@gmail.com", 1L, "ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("demo@gmail.com", 1L, "ADMIN");
+    }
+
+    /**
+     * 每个请求实际走的路径：Claims 缓存命中
+     */
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    /**
+     * 对照组：每次重新做完整的 HMAC 校验
+     */
+    @Benchmark
+    public Object parseSignedClaims() {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,41 @@
+package com.star.demo.benchmark;
+
+import com.star.demo.dto.request.CreateOrderRequest;
+import com.star.demo.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "50"})
+    private int lineCount;
+
+    private CreateOrderRequest request;
+
+    @Setup
+    public void setUp() {
+        List<CreateOrderRequest.OrderProduct> products = new ArrayList<>();
+        for (long i = 1; i <= lineCount; i++) {
+            CreateOrderRequest.OrderProduct product = new CreateOrderRequest.OrderProduct();
+            product.setProductId(i);
+            product.setQuantity(2);
+            products.add(product);
+        }
+        request = new CreateOrderRequest();
+        request.setProducts(products);
+        request.setAddress("上海市");
+        request.setPhone("13800000000");
+    }
+
+    @Benchmark
+    public Order fromRequest() {
+        return Order.fromRequest(request);
+    }
+}
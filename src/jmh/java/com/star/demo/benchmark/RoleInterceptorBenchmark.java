@@ -0,0 +1,44 @@
+package com.star.demo.benchmark;
+
+import com.star.demo.controller.OrderController;
+import com.star.demo.interceptor.RoleInterceptor;
+import com.star.demo.security.AuthenticatedUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+@State(Scope.Benchmark)
+public class RoleInterceptorBenchmark {
+
+    private RoleInterceptor roleInterceptor;
+    private HandlerMethod adminHandler;
+    private HandlerMethod publicHandler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        roleInterceptor = new RoleInterceptor();
+        OrderController controller = new OrderController(null, null, null);
+        adminHandler = new HandlerMethod(controller, OrderController.class.getMethod("getAllOrders", int.class, int.class));
+        publicHandler = new HandlerMethod(controller, OrderController.class.getMethod("getCurrentUserOrders", AuthenticatedUser.class));
+        request = new MockHttpServletRequest("GET", "/api/orders");
+        request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE,
+            AuthenticatedUser.builder().userId(1L).email("demo@gmail.com").role("ADMIN").build());
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandleRequireRole() throws Exception {
+        return roleInterceptor.preHandle(request, response, adminHandler);
+    }
+
+    @Benchmark
+    public boolean preHandleNoAnnotation() throws Exception {
+        return roleInterceptor.preHandle(request, response, publicHandler);
+    }
+}
@@ -0,0 +1,63 @@
+package com.star.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按接口记录延迟直方图和错误数
+ */
+public class LatencyRecorder {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(MAX_LATENCY_NANOS, 3))
+            .recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (!success) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public void report(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%-28s %10s %10s %10s %10s %10s %10s %8s%n",
+            "endpoint", "requests", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "errors");
+        long totalCount = 0;
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.getTotalCount();
+            totalCount += count;
+            LongAdder errorCount = errors.get(entry.getKey());
+            out.printf("%-28s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                entry.getKey(),
+                count,
+                count / seconds,
+                toMillis(histogram.getValueAtPercentile(50)),
+                toMillis(histogram.getValueAtPercentile(99)),
+                toMillis(histogram.getValueAtPercentile(99.9)),
+                toMillis(histogram.getMaxValue()),
+                errorCount == null ? 0 : errorCount.sum());
+        }
+        out.printf("total: %d requests in %.1fs, %.1f req/s%n", totalCount, seconds, totalCount / seconds);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,96 @@
+package com.star.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.star.demo.Application;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端压测入口：启动内嵌 PostgreSQL，执行 Flyway 迁移并启动应用，
+ * 多个并发用户循环执行 ShopperScenario，最后输出各接口 p50/p99/p999 延迟和吞吐。
+ * 完全离线运行，见 ./gradlew loadTest
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 32);
+        int loginUsers = Integer.getInteger("loadtest.loginUsers", 0);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 60));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(applicationProperties(jdbcUrl))
+                .run(args);
+            try {
+                // 压测关注延迟而不是售罄，库存给足避免下单返回 409
+                context.getBean(JdbcTemplate.class).update("UPDATE products SET stock = 1000000000");
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                run("http://localhost:" + port, users, loginUsers, warmup, duration);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(String jdbcUrl) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.flyway.url", jdbcUrl);
+        properties.put("spring.flyway.user", "postgres");
+        properties.put("spring.flyway.password", "postgres");
+        properties.put("logging.level.[com.star.demo]", "WARN");
+        // 所有虚拟用户来自同一个 IP，压测时关闭限流
+        properties.put("ratelimit.enabled", false);
+        return properties;
+    }
+
+    private static void run(String baseUrl, int users, int loginUsers, Duration warmup, Duration duration)
+            throws InterruptedException, IOException {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+        long deadline = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(users + loginUsers);
+        for (int i = 0; i < users; i++) {
+            executor.submit(new ShopperScenario(httpClient, objectMapper, recorder, baseUrl, i,
+                () -> System.nanoTime() < deadline));
+        }
+        // 额外的登录压力，观察 BCrypt 线程池饱和时其他接口的尾延迟
+        for (int i = 0; i < loginUsers; i++) {
+            executor.submit(new LoginBurstScenario(httpClient, objectMapper, recorder, baseUrl,
+                () -> System.nanoTime() < deadline));
+        }
+
+        System.out.printf("load test: %d users, %d login-burst users, warmup %ds, measure %ds against %s%n",
+            users, loginUsers, warmup.toSeconds(), duration.toSeconds(), baseUrl);
+        Thread.sleep(warmup.toMillis());
+        recorder.reset();
+        long measureStart = System.nanoTime();
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        recorder.report(System.out, Duration.ofNanos(System.nanoTime() - measureStart));
+    }
+}
@@ -0,0 +1,53 @@
+package com.star.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 只循环调用 /api/auth/login，用于测出登录吞吐上限以及 BCrypt 压力对其他接口尾延迟的影响
+ */
+public class LoginBurstScenario implements Runnable {
+
+    private static final String ENDPOINT = "POST /api/auth/login (burst)";
+
+    private final HttpClient httpClient;
+    private final LatencyRecorder recorder;
+    private final HttpRequest loginRequest;
+    private final BooleanSupplier running;
+
+    public LoginBurstScenario(HttpClient httpClient, ObjectMapper objectMapper, LatencyRecorder recorder,
+            String baseUrl, BooleanSupplier running) throws IOException {
+        this.httpClient = httpClient;
+        this.recorder = recorder;
+        this.running = running;
+        // V1.0__create_database.sql 中预置的用户
+        this.loginRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(
+                objectMapper.writeValueAsBytes(Map.of("email", "demo@gmail.com", "password", "passwords"))))
+            .build();
+    }
+
+    @Override
+    public void run() {
+        while (running.getAsBoolean()) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(loginRequest, HttpResponse.BodyHandlers.discarding());
+                recorder.record(ENDPOINT, System.nanoTime() - start, response.statusCode() == 200);
+            } catch (IOException e) {
+                recorder.record(ENDPOINT, System.nanoTime() - start, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
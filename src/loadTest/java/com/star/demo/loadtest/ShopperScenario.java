@@ -0,0 +1,114 @@
+package com.star.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 模拟一个用户的真实操作序列：登录 → 浏览商品 → 下单 → 查看我的订单
+ */
+public class ShopperScenario implements Runnable {
+
+    // V1.0__create_database.sql 中预置的商品 ID
+    private static final long MAX_SEED_PRODUCT_ID = 11;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+    private final String baseUrl;
+    private final String email;
+    private final String password;
+    private final BooleanSupplier running;
+
+    public ShopperScenario(HttpClient httpClient, ObjectMapper objectMapper, LatencyRecorder recorder,
+            String baseUrl, int userIndex, BooleanSupplier running) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.baseUrl = baseUrl;
+        this.email = "loadtest-" + userIndex + "-" + System.nanoTime() + "@example.com";
+        this.password = "loadtest-password";
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        try {
+            send("POST /api/auth/register", post("/api/auth/register", Map.of("email", email, "password", password), null));
+            while (running.getAsBoolean()) {
+                JsonNode login = send("POST /api/auth/login", post("/api/auth/login", Map.of("email", email, "password", password), null));
+                if (login == null) {
+                    continue;
+                }
+                String token = login.path("data").path("token").asText();
+                send("GET /api/products", get("/api/products?page=1&size=20", null));
+                long productId = ThreadLocalRandom.current().nextLong(1, MAX_SEED_PRODUCT_ID + 1);
+                send("GET /api/products/{id}", get("/api/products/" + productId, null));
+                send("POST /api/orders", post("/api/orders", randomOrder(), token));
+                send("GET /api/orders/user", get("/api/orders/user", token));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> products = new ArrayList<>();
+        int lines = random.nextInt(1, 4);
+        for (int i = 0; i < lines; i++) {
+            products.add(Map.of("productId", random.nextLong(1, MAX_SEED_PRODUCT_ID + 1), "quantity", random.nextInt(1, 5)));
+        }
+        return Map.of("products", products, "address", "上海市", "phone", "13800000000");
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 发送请求并记录延迟，失败时返回 null
+     */
+    private JsonNode send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long latency = System.nanoTime() - start;
+            JsonNode body = objectMapper.readTree(response.body());
+            boolean success = response.statusCode() / 100 == 2 && body.path("success").asBoolean(true);
+            recorder.record(endpoint, latency, success);
+            return success ? body : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.star.demo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入由 JwtAuthenticationFilter 解析好的当前登录用户
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+    /**
+     * 为 true 时未登录直接返回 401，否则注入 null
+     */
+    boolean required() default true;
+}
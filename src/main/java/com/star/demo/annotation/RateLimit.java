@@ -0,0 +1,38 @@
+package com.star.demo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 令牌桶限流，由 RateLimitInterceptor 处理
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimit {
+    enum KeyType {
+        /**
+         * 按 JWT 中的用户 ID，未登录时退化为按 IP
+         */
+        USER,
+        IP
+    }
+
+    /**
+     * 限流器名称，同名的接口共享令牌桶
+     */
+    String name();
+
+    KeyType key() default KeyType.IP;
+
+    /**
+     * 桶容量，即允许的突发请求数
+     */
+    int capacity();
+
+    /**
+     * 每秒补充的令牌数
+     */
+    double refillPerSecond();
+}
@@ -0,0 +1,16 @@
+package com.star.demo.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注只读方法，方法内 (非事务) 的查询可以路由到只读副本；
+ * 同一请求中已经发生过写操作时仍走主库，保证读到自己的写入。
+ * 未启用 replica.enabled 时没有任何效果。@Transactional(readOnly = true) 的方法无需再标注
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
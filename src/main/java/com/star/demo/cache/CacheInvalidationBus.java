@@ -0,0 +1,184 @@
+package com.star.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于 PostgreSQL LISTEN/NOTIFY 的跨节点缓存失效总线。
+ * products / users 的触发器在事务提交时发出「表名:id:版本」通知 (见 V3.3 迁移)，
+ * 每个节点用一条独立的长连接 (不占用连接池) 监听，并按表分发给订阅者清除本地缓存。
+ * 同一行版本不高于已处理版本的消息 (重复或迟到) 直接丢弃；
+ * 监听连接断开重连后无法得知期间错过了哪些消息，会通知订阅者清空全部缓存。
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    @Resource
+    private DataSourceProperties dataSourceProperties;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.poll-timeout:10s}")
+    private Duration pollTimeout;
+
+    @Value("${cache.invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    private final Map<String, List<Consumer<CacheInvalidationEvent>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> resetHandlers = new CopyOnWriteArrayList<>();
+    // 每一行最后处理的版本，淘汰后最坏情况只是重复处理一次失效
+    private final Cache<String, Long> lastVersions = Caffeine.newBuilder().maximumSize(100_000).build();
+    private Counter received;
+    private Counter dropped;
+    private Counter resets;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    /**
+     * 订阅某张表的变更，回调在监听线程上按提交顺序执行
+     */
+    public void subscribe(String table, Consumer<CacheInvalidationEvent> subscriber) {
+        subscribers.computeIfAbsent(table, key -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    /**
+     * 监听连接重连后调用，订阅者应清空全部本地缓存
+     */
+    public void onReset(Runnable handler) {
+        resetHandlers.add(handler);
+    }
+
+    @PostConstruct
+    public void start() {
+        received = Counter.builder("cache.invalidation.received")
+            .description("Cache invalidation notifications received")
+            .register(meterRegistry);
+        dropped = Counter.builder("cache.invalidation.dropped")
+            .description("Duplicate or out-of-date invalidation notifications ignored")
+            .register(meterRegistry);
+        resets = Counter.builder("cache.invalidation.resets")
+            .description("Full cache resets after the listener connection was re-established")
+            .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        // 在索引和缓存开始加载前就建立监听，加载期间的变更不会丢失
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    log.info("缓存失效监听已重连，清空本地缓存");
+                    resets.increment();
+                    resetHandlers.forEach(this::runSafely);
+                }
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("缓存失效监听连接中断，{} 后重连: {}", reconnectDelay, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        CacheInvalidationEvent event = CacheInvalidationEvent.parse(payload);
+        if (event == null) {
+            log.warn("无法解析缓存失效消息: {}", payload);
+            return;
+        }
+        received.increment();
+        String key = event.key();
+        Long last = lastVersions.getIfPresent(key);
+        if (last != null && last >= event.version()) {
+            dropped.increment();
+            return;
+        }
+        lastVersions.put(key, event.version());
+        List<Consumer<CacheInvalidationEvent>> tableSubscribers = subscribers.get(event.table());
+        if (tableSubscribers != null) {
+            tableSubscribers.forEach(subscriber -> runSafely(() -> subscriber.accept(event)));
+        }
+    }
+
+    private void runSafely(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Exception e) {
+            log.error("处理缓存失效消息失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Connection conn = connection;
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                log.debug("关闭缓存失效监听连接失败", e);
+            }
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
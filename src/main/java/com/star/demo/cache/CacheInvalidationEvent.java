@@ -0,0 +1,26 @@
+package com.star.demo.cache;
+
+/**
+ * 一条缓存失效消息：table 中 id 对应的行在 version 版本发生了变化 (新增、修改或删除)
+ */
+public record CacheInvalidationEvent(String table, Long id, long version) {
+
+    /**
+     * 解析触发器发出的「表名:id:版本」格式，格式不对时返回 null
+     */
+    public static CacheInvalidationEvent parse(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new CacheInvalidationEvent(parts[0], Long.valueOf(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    String key() {
+        return table + ":" + id;
+    }
+}
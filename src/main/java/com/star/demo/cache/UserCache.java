@@ -0,0 +1,84 @@
+package com.star.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.star.demo.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 用户本地缓存，分别按邮箱和 ID 查找 (/api/auth/user、/api/auth/ping 每次请求都要查用户)。
+ * 不存在的用户也会缓存 (Optional.empty)，有效期 negative-ttl 较短，避免反复查询不存在的邮箱打到数据库。
+ * 邮箱缓存只能按 ID 失效时逐个比较，用户写操作很少，代价可以接受；
+ * 任意用户变更都会清空邮箱的未命中缓存，因为新建或改名后的邮箱无法从 ID 得知。
+ * 缓存的 User 是共享实例，调用方不应修改。
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, Optional<User>> byEmail;
+    private final Cache<Long, Optional<User>> byId;
+
+    public UserCache(MeterRegistry meterRegistry,
+            @Value("${cache.user.maximum-size:10000}") long maximumSize,
+            @Value("${cache.user.expire-after-write:5m}") Duration expireAfterWrite,
+            @Value("${cache.user.negative-ttl:30s}") Duration negativeTtl) {
+        byEmail = CaffeineCacheMetrics.monitor(meterRegistry,
+            build(maximumSize, expireAfterWrite, negativeTtl), "users.email");
+        byId = CaffeineCacheMetrics.monitor(meterRegistry,
+            build(maximumSize, expireAfterWrite, negativeTtl), "users.id");
+    }
+
+    private static <K> Cache<K, Optional<User>> build(long maximumSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<K, Optional<User>>() {
+                @Override
+                public long expireAfterCreate(K key, Optional<User> value, long currentTime) {
+                    return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(K key, Optional<User> value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(K key, Optional<User> value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    public Optional<User> getByEmail(String email, Function<String, Optional<User>> loader) {
+        return byEmail.get(email, loader);
+    }
+
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        return byId.get(id, loader);
+    }
+
+    /**
+     * 用户新建、修改或删除后调用
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        byEmail.asMap().values().removeIf(user -> user.isEmpty() || user.get().getId().equals(id));
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+}
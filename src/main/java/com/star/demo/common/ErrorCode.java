@@ -12,6 +12,8 @@ public enum ErrorCode {
     EMAIL_ALREADY_EXISTS("USER_001", "邮箱已被注册"),
     INVALID_PASSWORD("USER_002", "密码格式无效"),
     SYSTEM_ERROR("500", "系统内部错误"),
+    SERVICE_BUSY("503", "服务繁忙"),
+    OUT_OF_STOCK("ORDER_001", "库存不足"),
     USER_NOT_FOUND("USER_003", "用户不存在");
 
     private final String code;
@@ -0,0 +1,31 @@
+package com.star.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.star.demo.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * 商品本地缓存，W-TinyLFU 淘汰，命中/未命中/淘汰次数通过 Actuator 暴露 (cache.gets / cache.evictions)
+     */
+    @Bean
+    public Cache<Long, Product> productCache(MeterRegistry meterRegistry,
+            @Value("${cache.product.maximum-size:10000}") long maximumSize,
+            @Value("${cache.product.expire-after-write:10m}") Duration expireAfterWrite) {
+        Cache<Long, Product> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+}
@@ -3,10 +3,15 @@ package com.star.demo.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.star.demo.interceptor.SqlTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @MapperScan("com.star.demo.mapper")
 public class MybatisPlusConfig {
@@ -20,4 +25,14 @@ public class MybatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.POSTGRE_SQL));
         return interceptor;
     }
+
+    /**
+     * SQL 耗时统计与慢查询日志
+     */
+    @Bean
+    public SqlTimingInterceptor sqlTimingInterceptor(MeterRegistry meterRegistry,
+            @Value("${sql.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${sql.explain-slow:false}") boolean explainSlow) {
+        return new SqlTimingInterceptor(meterRegistry, slowThreshold, explainSlow);
+    }
 }
\ No newline at end of file
@@ -1,21 +1,43 @@
 package com.star.demo.config;
 
+import com.star.demo.interceptor.RateLimitInterceptor;
 import com.star.demo.interceptor.RoleInterceptor;
+import com.star.demo.resolver.CurrentUserArgumentResolver;
+import com.star.demo.trace.RequestTraceInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     private final RoleInterceptor roleInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final RequestTraceInterceptor requestTraceInterceptor;
 
-    public WebConfig(RoleInterceptor roleInterceptor) {
+    public WebConfig(RoleInterceptor roleInterceptor, RateLimitInterceptor rateLimitInterceptor,
+            CurrentUserArgumentResolver currentUserArgumentResolver, RequestTraceInterceptor requestTraceInterceptor) {
         this.roleInterceptor = roleInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
+        this.requestTraceInterceptor = requestTraceInterceptor;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(roleInterceptor);
+        registry.addInterceptor(rateLimitInterceptor);
+        // 必须最后执行，用于标记控制器开始时间
+        registry.addInterceptor(requestTraceInterceptor).order(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.star.demo.controller;
 
+import com.star.demo.annotation.CurrentUser;
+import com.star.demo.annotation.RateLimit;
 import com.star.demo.model.User;
+import com.star.demo.security.AuthenticatedUser;
+import com.star.demo.service.TokenRevocationService;
 import com.star.demo.service.UserService;
 import com.star.demo.common.ApiResponse;
 import com.star.demo.dto.request.LoginRequest;
@@ -19,8 +23,10 @@ import jakarta.servlet.http.HttpServletResponse;
 @RequiredArgsConstructor
 public class AuthController {
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
+    @RateLimit(name = "register", key = RateLimit.KeyType.IP, capacity = 5, refillPerSecond = 0.2)
     public ApiResponse<AuthResponse> register(@RequestBody User user) {
         log.info("收到注册请求：{}", user.getEmail());
         user.setRole(User.Role.ADMIN);
@@ -33,6 +39,7 @@ public class AuthController {
     }
 
     @PostMapping("/login")
+    @RateLimit(name = "login", key = RateLimit.KeyType.IP, capacity = 20, refillPerSecond = 2)
     public ApiResponse<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletResponse response) {
         log.info("收到登录请求：{}", loginRequest.getEmail());
         User user = userService.getUserByEmailAndPassword(loginRequest.getEmail(), loginRequest.getPassword());
@@ -41,31 +48,32 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ApiResponse<Void> logout() {
+    public ApiResponse<Void> logout(@CurrentUser(required = false) AuthenticatedUser currentUser) {
+        if (currentUser != null) {
+            tokenRevocationService.revoke(currentUser.getTokenId(), currentUser.getExpiresAt());
+        }
         return ApiResponse.success(null);
     }
 
     @GetMapping("/user")
-    public ApiResponse<UserResponse> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String token) {
-        log.info("/user 收到的 Authorization header: {}", token);
-        if (token == null || token.isEmpty()) {
+    public ApiResponse<UserResponse> getCurrentUser(@CurrentUser(required = false) AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ApiResponse.error("未提供认证信息");
         }
-        String email = userService.extractEmail(token.replace("Bearer ", ""));
-        User user = userService.getUserByEmail(email);
+        User user = userService.getUserByEmail(currentUser.getEmail());
         return ApiResponse.success(UserResponse.fromUser(user));
     }
 
     @PostMapping("/ping")
-    public ApiResponse<AuthResponse> ping(@RequestHeader(value = "Authorization", required = false) String token) {
-        log.info("/ping 收到的 Authorization header: {}", token);
-        if (token == null || token.isEmpty()) {
+    public ApiResponse<AuthResponse> ping(@CurrentUser(required = false) AuthenticatedUser currentUser) {
+        if (currentUser == null) {
             return ApiResponse.error("未提供认证信息");
         }
-        String email = userService.extractEmail(token.replace("Bearer ", ""));
-        log.info("/ping 提取的邮箱: {}", email);
+        String email = currentUser.getEmail();
+        log.info("/ping 当前用户邮箱: {}", email);
         User user = userService.getUserByEmail(email);
-        String newToken = userService.generateToken(email, user.getId(), user.getRole().toString());
-        return ApiResponse.success(AuthResponse.builder().token(newToken).user(UserResponse.fromUser(user)).build());
+        // 临近过期或角色变化时才签发新 token，否则返回原 token
+        String token = userService.renewToken(currentUser, user);
+        return ApiResponse.success(AuthResponse.builder().token(token).user(UserResponse.fromUser(user)).build());
     }
 }
\ No newline at end of file
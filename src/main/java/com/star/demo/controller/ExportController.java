@@ -0,0 +1,52 @@
+package com.star.demo.controller;
+
+import com.star.demo.annotation.RequireRole;
+import com.star.demo.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/orders")
+    @RequireRole("ADMIN")
+    public void exportOrders(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        prepareResponse(response, exportFormat, "orders");
+        exportService.exportOrders(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/products")
+    @RequireRole("ADMIN")
+    public void exportProducts(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        prepareResponse(response, exportFormat, "products");
+        exportService.exportProducts(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/users")
+    @RequireRole("ADMIN")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        prepareResponse(response, exportFormat, "users");
+        exportService.exportUsers(exportFormat, response.getOutputStream());
+    }
+
+    private void prepareResponse(HttpServletResponse response, ExportService.Format format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+    }
+}
@@ -1,11 +1,16 @@
 package com.star.demo.controller;
 
+import com.star.demo.annotation.CurrentUser;
+import com.star.demo.annotation.RateLimit;
 import com.star.demo.annotation.RequireRole;
 import com.star.demo.common.ApiResponse;
 import com.star.demo.dto.request.CreateOrderRequest;
+import com.star.demo.dto.response.CursorPage;
 import com.star.demo.model.Order;
+import com.star.demo.service.IdempotencyService;
+import com.star.demo.service.OrderIngestionService;
 import com.star.demo.service.OrderService;
-import com.star.demo.security.JwtUtil;
+import com.star.demo.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,23 +22,36 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
-    private final JwtUtil jwtUtil;
+    private final IdempotencyService idempotencyService;
+    private final OrderIngestionService orderIngestionService;
 
     @PostMapping
+    @RateLimit(name = "create-order", key = RateLimit.KeyType.USER, capacity = 20, refillPerSecond = 5)
     public ApiResponse<Order> createOrder(@RequestBody CreateOrderRequest request, 
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtUtil.extractUserId(token.replace("Bearer ", ""));
+            @CurrentUser AuthenticatedUser user,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Order order = Order.fromRequest(request);
-        order.setUserId(userId);
-        return ApiResponse.success(orderService.createOrder(order));
+        order.setUserId(user.getUserId());
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return ApiResponse.success(placeOrder(order));
+        }
+        // 客户端超时重试时返回第一次创建的订单，不会重复下单
+        return ApiResponse.success(idempotencyService.execute("create-order:" + user.getUserId() + ":" + idempotencyKey,
+            request, () -> placeOrder(order)));
+    }
+
+    private Order placeOrder(Order order) {
+        if (orderIngestionService.isEnabled()) {
+            return orderIngestionService.submit(order);
+        }
+        return orderService.createOrder(order);
     }
 
     @GetMapping("/{id}")
     public ApiResponse<Order> getOrder(@PathVariable Long id, 
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtUtil.extractUserId(token.replace("Bearer ", ""));
+            @CurrentUser AuthenticatedUser user) {
         Order order = orderService.getOrderById(id);
-        if (!order.getUserId().equals(userId)) {
+        if (!order.getUserId().equals(user.getUserId())) {
             return ApiResponse.error("无权访问此订单");
         }
         return ApiResponse.success(order);
@@ -48,11 +66,27 @@ public class OrderController {
         return ApiResponse.success(orderService.getAllOrders(page, size));
     }
 
+    @GetMapping("/cursor")
+    @RequireRole("ADMIN")
+    public ApiResponse<CursorPage<Order>> getOrdersByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        return ApiResponse.success(orderService.getOrdersBefore(cursor, size));
+    }
+
     @GetMapping("/user")
     public ApiResponse<List<Order>> getCurrentUserOrders(
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtUtil.extractUserId(token.replace("Bearer ", ""));
-        return ApiResponse.success(orderService.getUserOrders(userId));
+            @CurrentUser AuthenticatedUser user) {
+        return ApiResponse.success(orderService.getUserOrders(user.getUserId()));
+    }
+
+    @GetMapping("/user/cursor")
+    public ApiResponse<CursorPage<Order>> getCurrentUserOrdersByCursor(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResponse.success(orderService.getUserOrdersBefore(user.getUserId(), cursor, size));
     }
 
     @PutMapping("/{id}")
@@ -1,6 +1,12 @@
 package com.star.demo.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.star.demo.annotation.ReplicaRead;
+import com.star.demo.annotation.RequireRole;
+import com.star.demo.dto.response.CursorPage;
+import com.star.demo.dto.response.ProductSuggestion;
+import com.star.demo.dto.response.SearchPage;
+import com.star.demo.dto.response.TagFilterPage;
 import com.star.demo.model.Product;
 import com.star.demo.service.ProductRepository;
 import com.star.demo.service.ProductService;
@@ -8,6 +14,8 @@ import com.star.demo.common.ApiResponse;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -34,11 +42,35 @@ public class ProductController {
     }
 
     @GetMapping
+    @ReplicaRead
     public ApiResponse<IPage<Product>> getAllProducts(@RequestParam(defaultValue = "1") Integer page, @RequestParam(defaultValue = "100") Integer size) {
         IPage<Product> products = productRepository.selectAll(page, size);
         return ApiResponse.success(products);
     }
 
+    @GetMapping(params = "tags")
+    public ApiResponse<TagFilterPage<Product>> getProductsByTags(@RequestParam String tags,
+                                                                 @RequestParam(defaultValue = "and") String mode,
+                                                                 @RequestParam(defaultValue = "1") Integer page,
+                                                                 @RequestParam(defaultValue = "100") Integer size) {
+        return ApiResponse.success(productService.getProductsByTags(tags, mode, page, size));
+    }
+
+    @GetMapping("/search")
+    public ApiResponse<SearchPage<Product>> searchProducts(@RequestParam String q, @RequestParam(defaultValue = "20") Integer size) {
+        return ApiResponse.success(productService.searchProducts(q, size));
+    }
+
+    @GetMapping("/suggest")
+    public ApiResponse<List<ProductSuggestion>> suggestProducts(@RequestParam String prefix, @RequestParam(defaultValue = "10") Integer size) {
+        return ApiResponse.success(productService.suggestProducts(prefix, size));
+    }
+
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPage<Product>> getProductsByCursor(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") Integer size) {
+        return ApiResponse.success(productService.getProductsAfter(cursor, size));
+    }
+
     @PutMapping("/{id}")
     public ApiResponse<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
         boolean success = productService.updateProduct(product, id);
@@ -48,6 +80,13 @@ public class ProductController {
         return ApiResponse.success(null);
     }
 
+    @PostMapping("/{id}/restock")
+    @RequireRole("ADMIN")
+    public ApiResponse<Void> restockProduct(@PathVariable Long id, @RequestParam int quantity) {
+        productService.restockProduct(id, quantity);
+        return ApiResponse.success(null);
+    }
+
     @DeleteMapping("/{id}")
     public ApiResponse<Void> deleteProductById(@PathVariable Long id) {
         boolean success = productService.removeProductById(id);
@@ -0,0 +1,166 @@
+package com.star.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定期检查只读副本：连接失败或复制延迟超过 replica.max-lag 的副本暂停使用，恢复后自动重新加入。
+ * 延迟判断：副本回放位置 (pg_last_wal_replay_lsn) 已追上检查时主库的 WAL 位置即视为无延迟，
+ * 否则取副本最后回放事务到现在的时间。不是 standby 的实例 (pg_is_in_recovery 为 false) 视为无延迟，
+ * 便于用两个独立的本地 PostgreSQL 测试路由。
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    private static final String REPLICA_LAG_SQL = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_replay_lsn() >= ?::pg_lsn THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+        END
+        """;
+
+    private final DataSource primary;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    @Getter
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaHealthChecker(DataSource primary, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLag = properties.getMaxLag();
+        this.checkInterval = properties.getCheckInterval();
+        this.meterRegistry = meterRegistry;
+        for (ReplicaProperties.Node node : properties.getDatasources()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername());
+            dataSource.setPassword(node.getPassword());
+            dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // 副本暂时不可用时不阻塞启动
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(name, dataSource));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, Replica::getLagSeconds)
+                .tag("replica", replica.getName())
+                .description("Replication lag in seconds observed by the last health check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                .tag("replica", replica.getName())
+                .description("Whether reads are currently routed to this replica")
+                .register(meterRegistry);
+        }
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 轮询选择一个健康的副本，没有可用副本时返回 null (读主库)
+     */
+    public String pickReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        return null;
+    }
+
+    void check() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_LSN_SQL)) {
+            resultSet.next();
+            primaryLsn = resultSet.getString(1);
+        } catch (Exception e) {
+            // 主库不可用时无法判断延迟，保持副本当前状态
+            log.warn("读取主库 WAL 位置失败: {}", e.getMessage());
+            return;
+        }
+        for (Replica replica : replicas) {
+            checkReplica(replica, primaryLsn);
+        }
+    }
+
+    private void checkReplica(Replica replica, String primaryLsn) {
+        boolean wasHealthy = replica.healthy;
+        try (Connection connection = replica.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(REPLICA_LAG_SQL)) {
+            statement.setString(1, primaryLsn);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                replica.lagSeconds = resultSet.getDouble(1);
+            }
+            replica.healthy = replica.lagSeconds <= maxLag.toMillis() / 1000.0;
+        } catch (Exception e) {
+            replica.healthy = false;
+            log.warn("只读副本 {} 检查失败: {}", replica.getName(), e.getMessage());
+        }
+        if (wasHealthy != replica.healthy) {
+            log.info("只读副本 {} {}，复制延迟 {}s", replica.getName(), replica.healthy ? "恢复使用" : "暂停使用", replica.lagSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
@@ -0,0 +1,35 @@
+package com.star.demo.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本配置 (replica.*)，副本列表无法用 @Value 绑定，因此使用 @ConfigurationProperties
+ */
+@Data
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 复制延迟超过该值的副本暂停使用，直到追上
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    private List<Node> datasources = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,22 @@
+package com.star.demo.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * @ReplicaRead 方法执行期间允许查询路由到只读副本
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.star.demo.annotation.ReplicaRead) || @within(com.star.demo.annotation.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReplicaRoutingContext.enterRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.exitRead();
+        }
+    }
+}
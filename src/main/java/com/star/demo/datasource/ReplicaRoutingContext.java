@@ -0,0 +1,38 @@
+package com.star.demo.datasource;
+
+/**
+ * 当前线程 (请求) 的路由状态：是否处于 @ReplicaRead 方法中，以及本请求是否已经写过数据库
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Integer> READ_DEPTH = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<Boolean> WRITTEN = ThreadLocal.withInitial(() -> false);
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static void enterRead() {
+        READ_DEPTH.set(READ_DEPTH.get() + 1);
+    }
+
+    public static void exitRead() {
+        READ_DEPTH.set(READ_DEPTH.get() - 1);
+    }
+
+    public static boolean isRead() {
+        return READ_DEPTH.get() > 0;
+    }
+
+    public static void markWritten() {
+        WRITTEN.set(true);
+    }
+
+    public static boolean hasWritten() {
+        return WRITTEN.get();
+    }
+
+    public static void clear() {
+        READ_DEPTH.remove();
+        WRITTEN.remove();
+    }
+}
@@ -0,0 +1,32 @@
+package com.star.demo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 按当前事务/方法选择主库或健康的只读副本。
+ * 需要包在 LazyConnectionDataSourceProxy 中：事务开始时只读标记尚未设置，要等到第一条语句执行时再取连接
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthChecker healthChecker;
+
+    public ReplicaRoutingDataSource(ReplicaHealthChecker healthChecker) {
+        this.healthChecker = healthChecker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+            ? TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            : ReplicaRoutingContext.isRead();
+        // 本请求写过数据库后一律读主库，避免读到副本上尚未同步的旧数据
+        if (!readOnly || ReplicaRoutingContext.hasWritten()) {
+            return PRIMARY;
+        }
+        String replica = healthChecker.pickReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+}
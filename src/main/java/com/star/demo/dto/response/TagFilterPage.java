@@ -0,0 +1,24 @@
+package com.star.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按标签过滤的分页结果，facets 为命中商品中各标签出现的次数 (最多 20 个，按数量倒序)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFilterPage<T> {
+    private List<T> records;
+    private long total;
+    private long current;
+    private long size;
+    private Map<String, Long> facets;
+}
@@ -1,6 +1,7 @@
 package com.star.demo.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -46,6 +47,30 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(ex.getMessage(), ErrorCode.INVALID_PASSWORD.getCode());
     }
 
+    @ExceptionHandler(UnauthorizedException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    @ResponseBody
+    public ApiResponse<?> handleUnauthorizedException(UnauthorizedException ex) {
+        log.warn("未认证请求: {}", ex.getMessage());
+        return ApiResponse.error(ex.getMessage(), ErrorCode.UNAUTHORIZED.getCode());
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseBody
+    public ResponseEntity<ApiResponse<?>> handleBusinessException(BusinessException ex) {
+        log.warn("业务异常: {}", ex.getMessage());
+        HttpStatus status = switch (ex.getErrorCode()) {
+            case PARAM_ERROR -> HttpStatus.BAD_REQUEST;
+            case UNAUTHORIZED -> HttpStatus.UNAUTHORIZED;
+            case FORBIDDEN -> HttpStatus.FORBIDDEN;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case OUT_OF_STOCK -> HttpStatus.CONFLICT;
+            case SERVICE_BUSY -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        return ResponseEntity.status(status).body(ApiResponse.error(ex.getMessage(), ex.getErrorCode().getCode()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
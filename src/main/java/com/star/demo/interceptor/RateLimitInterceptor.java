@@ -0,0 +1,128 @@
+package com.star.demo.interceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.star.demo.annotation.RateLimit;
+import com.star.demo.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    /**
+     * 令牌桶按 "限流器名称:用户或 IP" 存放，空闲超过 idle-timeout 后淘汰
+     */
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitInterceptor(MeterRegistry meterRegistry,
+            @Value("${ratelimit.enabled:true}") boolean enabled,
+            @Value("${ratelimit.max-buckets:100000}") long maxBuckets,
+            @Value("${ratelimit.idle-timeout:10m}") Duration idleTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (enabled && handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            RateLimit annotation = handlerMethod.getMethodAnnotation(RateLimit.class);
+            if (annotation == null) {
+                // 标在控制器类上时对其所有接口生效
+                annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimit.class);
+            }
+            if (annotation != null) {
+                RateLimit limit = annotation;
+                String key = limit.name() + ":" + resolveKey(limit.key(), request);
+                TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.capacity(), limit.refillPerSecond()));
+                long waitNanos = bucket.tryAcquire(System.nanoTime());
+                if (waitNanos > 0) {
+                    throttledCounter(limit.name()).increment();
+                    log.warn("请求过于频繁, 请求被拒绝, URI: {}, key: {}", request.getRequestURI(), key);
+                    response.setStatus(429);
+                    // 向上取整：按向下取整的秒数重试时令牌往往还没补充上
+                    response.setHeader("Retry-After", String.valueOf(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+                    response.setContentType("application/json");
+                    response.setCharacterEncoding("UTF-8");
+                    response.getWriter().write("{\"message\": \"请求过于频繁\"}");
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private String resolveKey(RateLimit.KeyType keyType, HttpServletRequest request) {
+        if (keyType == RateLimit.KeyType.USER) {
+            AuthenticatedUser user = (AuthenticatedUser) request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+            if (user != null) {
+                return "user:" + user.getUserId();
+            }
+        }
+        // 反向代理后的客户端 IP 由 server.forward-headers-strategy 从 X-Forwarded-For 还原
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private Counter throttledCounter(String name) {
+        return Counter.builder("ratelimit.throttled")
+                .description("Requests rejected by the rate limiter")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 基于 GCRA 的无锁令牌桶：只保存一个"理论到达时间"，CAS 更新，等价于容量 capacity、
+     * 每秒补充 refillPerSecond 个令牌的令牌桶
+     */
+    static class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            if (capacity <= 0 || !(refillPerSecond > 0)) {
+                throw new IllegalArgumentException("@RateLimit 的 capacity 和 refillPerSecond 必须大于 0");
+            }
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1L);
+        }
+
+        /**
+         * 成功取得令牌返回 0，否则返回还需等待的纳秒数
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = theoreticalArrivalTime.get();
+                long tat = current == Long.MIN_VALUE ? now : Math.max(current, now);
+                long wait = tat - now - burstToleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrivalTime.compareAndSet(current, tat + emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
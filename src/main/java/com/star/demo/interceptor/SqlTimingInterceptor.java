@@ -0,0 +1,197 @@
+package com.star.demo.interceptor;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.star.demo.trace.RequestTrace;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * SQL 耗时统计：按 MappedStatement ID 记录耗时直方图 (db.statement) 和返回行数 (db.statement.rows)，
+ * 分页插件的 COUNT 查询以 *_mpCount 单独统计。超过阈值的语句连同绑定参数记录到日志，可选附带 EXPLAIN。
+ * 通过 ResultHandler 流式读取的语句 (如导出的 streamAll) 耗时包含逐行处理和写出响应的时间，
+ * 单独记录为 db.statement.stream，不参与慢 SQL 判断。
+ */
+@Slf4j
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+    @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+    @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowThreshold;
+    private final boolean explainSlow;
+
+    public SqlTimingInterceptor(MeterRegistry meterRegistry, Duration slowThreshold, boolean explainSlow) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+        this.explainSlow = explainSlow;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler statementHandler = PluginUtils.realTarget(invocation.getTarget());
+        MappedStatement mappedStatement = PluginUtils.mpStatementHandler(statementHandler).mappedStatement();
+        String statementId = mappedStatement.getId();
+        boolean streamed = isStreamed(invocation);
+
+        long start = System.nanoTime();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestTrace trace = RequestTrace.current();
+            if (trace != null) {
+                if (streamed) {
+                    trace.addStreamedStatement();
+                } else {
+                    trace.addDbTime(elapsed);
+                }
+            }
+            Timer.builder(streamed ? "db.statement.stream" : "db.statement")
+                .description(streamed
+                    ? "MyBatis streamed statement time, including per-row handling by the ResultHandler"
+                    : "MyBatis mapped statement execution time")
+                .tag("statement", statementId)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+            long rows = rowCount(invocation, result);
+            if (rows >= 0) {
+                DistributionSummary.builder("db.statement.rows")
+                    .description("Rows returned or affected by a mapped statement")
+                    .tag("statement", statementId)
+                    .register(meterRegistry)
+                    .record(rows);
+            }
+            if (!streamed && elapsed >= slowThreshold.toNanos()) {
+                logSlowStatement(statementHandler, mappedStatement, (Statement) invocation.getArgs()[0], elapsed, rows);
+            }
+        }
+    }
+
+    /**
+     * 普通查询的 ResultHandler 参数为 null (Executor.NO_RESULT_HANDLER)，非空时结果逐行交给调用方处理
+     */
+    private boolean isStreamed(Invocation invocation) {
+        return "query".equals(invocation.getMethod().getName()) && invocation.getArgs()[1] != null;
+    }
+
+    private long rowCount(Invocation invocation, Object result) {
+        String method = invocation.getMethod().getName();
+        if ("query".equals(method) && invocation.getArgs()[1] == null && result instanceof List<?> list) {
+            return list.size();
+        }
+        if ("update".equals(method) && result instanceof Integer affected) {
+            return affected;
+        }
+        // 批量语句或使用 ResultHandler 流式读取时无法得知行数
+        return -1;
+    }
+
+    private void logSlowStatement(StatementHandler statementHandler, MappedStatement mappedStatement,
+            Statement statement, long elapsedNanos, long rows) {
+        BoundSql boundSql = statementHandler.getBoundSql();
+        String sql = boundSql.getSql().replaceAll("\\s+", " ");
+        log.warn("慢 SQL {} 耗时 {} ms, 行数 {}: {} 参数: {}", mappedStatement.getId(), elapsedNanos / 1_000_000, rows,
+            sql, boundParameters(mappedStatement.getConfiguration(), boundSql));
+        if (explainSlow && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT) {
+            log.warn("慢 SQL {} 执行计划:\n{}", mappedStatement.getId(), explain(statementHandler, statement, boundSql));
+        }
+    }
+
+    /**
+     * EXPLAIN 在调用方的连接上执行。处于事务中时包在保存点里：PostgreSQL 中语句失败会使整个事务进入 aborted 状态，
+     * 失败后回滚到保存点，调用方的事务可以继续提交
+     */
+    String explain(StatementHandler statementHandler, Statement statement, BoundSql boundSql) {
+        try {
+            Connection connection = statement.getConnection();
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try {
+                return explain(connection, statementHandler, boundSql);
+            } catch (Exception e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw e;
+            } finally {
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+            }
+        } catch (Exception e) {
+            return "EXPLAIN 失败: " + e.getMessage();
+        }
+    }
+
+    private String explain(Connection connection, StatementHandler statementHandler, BoundSql boundSql) throws SQLException {
+        try (PreparedStatement explainStatement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            statementHandler.parameterize(explainStatement);
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet resultSet = explainStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    /**
+     * 按 DefaultParameterHandler 的规则取出绑定参数值
+     */
+    private List<Object> boundParameters(Configuration configuration, BoundSql boundSql) {
+        Object parameterObject = boundSql.getParameterObject();
+        List<Object> values = new ArrayList<>();
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = parameterMapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameterObject == null) {
+                values.add(null);
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                values.add(parameterObject);
+            } else {
+                MetaObject metaObject = configuration.newMetaObject(parameterObject);
+                values.add(metaObject.getValue(property));
+            }
+        }
+        return values;
+    }
+}
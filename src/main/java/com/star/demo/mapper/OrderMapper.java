@@ -3,8 +3,21 @@ package com.star.demo.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.star.demo.model.Order;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
 public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 逐行回调导出，fetchSize 需在事务内 (autocommit=false) 才会生效
+     */
+    @Select("SELECT * FROM orders ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(Order.class)
+    void streamAll(ResultHandler<Order> handler);
 }
 
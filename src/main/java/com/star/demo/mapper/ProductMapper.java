@@ -2,9 +2,56 @@ package com.star.demo.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.star.demo.model.Product;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 public interface ProductMapper extends BaseMapper<Product> {
 
-}
+    @Select("SELECT * FROM products ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(Product.class)
+    void streamAll(ResultHandler<Product> handler);
+
+    /**
+     * 一条语句扣减一个订单涉及的全部商品库存，只有 stock >= 数量的行会被更新。
+     * 先按 id 顺序加行锁，避免两个订单以相反顺序锁同一批商品而死锁。
+     * 返回实际更新的行数，小于商品数即表示有商品库存不足。
+     */
+    @Update("""
+        WITH locked AS (
+            SELECT id FROM products
+            WHERE id = ANY(#{productIds,typeHandler=org.apache.ibatis.type.ArrayTypeHandler})
+            ORDER BY id
+            FOR UPDATE
+        )
+        UPDATE products p
+        SET stock = p.stock - r.quantity
+        FROM unnest(#{productIds,typeHandler=org.apache.ibatis.type.ArrayTypeHandler},
+                    #{quantities,typeHandler=org.apache.ibatis.type.ArrayTypeHandler}) AS r(id, quantity)
+        WHERE p.id = r.id
+          AND p.id IN (SELECT id FROM locked)
+          AND p.stock >= r.quantity
+        """)
+    int decrementStock(@Param("productIds") Long[] productIds, @Param("quantities") Integer[] quantities);
 
+    /**
+     * 从数据库预留最多 quantity 件库存到本进程，返回实际预留的数量 (商品不存在时返回 null)
+     */
+    @Select("""
+        UPDATE products p
+        SET stock = p.stock - LEAST(o.stock, #{quantity})
+        FROM (SELECT id, stock FROM products WHERE id = #{productId} FOR UPDATE) o
+        WHERE p.id = o.id
+        RETURNING LEAST(o.stock, #{quantity})
+        """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    Integer leaseStock(@Param("productId") Long productId, @Param("quantity") int quantity);
 
+    @Update("UPDATE products SET stock = stock + #{quantity} WHERE id = #{productId}")
+    int returnStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+}
@@ -0,0 +1,17 @@
+package com.star.demo.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.star.demo.model.RevokedToken;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.Instant;
+
+public interface RevokedTokenMapper extends BaseMapper<RevokedToken> {
+
+    /**
+     * 重复注销同一个 token 时忽略
+     */
+    @Insert("INSERT INTO revoked_tokens (jti, expires_at) VALUES (#{jti}, #{expiresAt}) ON CONFLICT (jti) DO NOTHING")
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt);
+}
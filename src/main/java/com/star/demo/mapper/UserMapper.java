@@ -2,9 +2,19 @@ package com.star.demo.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.star.demo.model.User;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.Optional;
 
 public interface UserMapper extends BaseMapper<User> {
     Optional<User> findByEmail(String email);
+
+    @Select("SELECT * FROM users ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(User.class)
+    void streamAll(ResultHandler<User> handler);
 }
@@ -1,18 +1,25 @@
 package com.star.demo.model;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @TableName("products")
 public class Product {
 
@@ -38,4 +45,12 @@ public class Product {
     private JsonNode eventId;
 
     private String tags;
+
+    // 库存数量，由 StockService 原子扣减/补货；通用的按实体更新不会写入该列，缓存中的值可能滞后于数据库
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer stock;
+
+    // 行版本，由数据库触发器在业务字段变更时递增，用于丢弃过期的缓存失效消息
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
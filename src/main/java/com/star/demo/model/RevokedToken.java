@@ -0,0 +1,23 @@
+package com.star.demo.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("revoked_tokens")
+public class RevokedToken {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    // token 的 jti
+    private String jti;
+    // token 的过期时间，之后记录可以删除
+    private Instant expiresAt;
+}
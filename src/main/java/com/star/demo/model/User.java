@@ -1,5 +1,6 @@
 package com.star.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.Column;
@@ -10,11 +11,15 @@ import jakarta.validation.constraints.Size;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @TableName("users")
 public class User {
     public enum Role {
@@ -37,4 +42,8 @@ public class User {
     @Builder.Default
     private Role role = Role.USER;
     // 默认角色为 USER
+
+    // 行版本，由数据库触发器在业务字段变更时递增，用于丢弃过期的缓存失效消息
+    @JsonIgnore
+    private Long version;
 }
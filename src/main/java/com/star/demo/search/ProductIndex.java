@@ -0,0 +1,16 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+
+/**
+ * 商品内存索引，由 ProductIndexer 在启动时全量加载，之后随 ProductService 的写操作增量维护
+ */
+public interface ProductIndex {
+
+    /**
+     * 新增或覆盖一个商品，实现需先移除该商品旧的索引项
+     */
+    void add(Product product);
+
+    void remove(Long productId);
+}
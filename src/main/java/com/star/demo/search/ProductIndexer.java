@@ -0,0 +1,101 @@
+package com.star.demo.search;
+
+import com.star.demo.mapper.ProductMapper;
+import com.star.demo.model.Product;
+import com.star.demo.service.OrderItemRepository;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 维护所有 ProductIndex：启动完成后流式扫描一次 products 表，之后由 ProductService 在本节点写入成功后、
+ * 以及收到其他节点的缓存失效通知时调用 refresh 重新读取该商品。
+ * 每个商品记录已写入索引的行版本，版本不高于它的数据 (迟到的读取结果) 不会覆盖索引。
+ */
+@Slf4j
+@Component
+public class ProductIndexer {
+
+    @Resource
+    private ProductMapper productMapper;
+
+    @Resource
+    private OrderItemRepository orderItemRepository;
+
+    @Resource
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Resource
+    private List<ProductIndex> indexes;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        AtomicLong count = new AtomicLong();
+        // 销量先于商品载入，补全索引插入时即可按热度排序
+        productSuggestIndex.loadPopularity(orderItemRepository.sumQuantityByProduct());
+        Map<Long, Long> before = new HashMap<>(versions);
+        Set<Long> seen = new HashSet<>();
+        productMapper.streamAll(context -> {
+            Product product = context.getResultObject();
+            index(product);
+            seen.add(product.getId());
+            count.incrementAndGet();
+        });
+        // 重建前已在索引中、但数据库里已经删除的商品 (监听断开期间被其他节点删除)；
+        // 重建期间通过 refresh 新加入或更新过的商品版本已变化，不在此列
+        before.forEach((productId, version) -> {
+            if (!seen.contains(productId) && version.equals(versions.get(productId))) {
+                remove(productId, 0);
+            }
+        });
+        log.info("商品索引加载完成，共 {} 个商品，耗时 {} ms", count.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 从数据库重新读取商品并更新索引，商品已不存在时从索引中移除
+     *
+     * @param version 触发本次刷新的变更版本，本节点写入时传 0
+     */
+    public void refresh(Long productId, long version) {
+        Product product = productMapper.selectById(productId);
+        if (product == null) {
+            remove(productId, version);
+        } else {
+            index(product);
+        }
+    }
+
+    private synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        Long indexed = versions.get(product.getId());
+        if (indexed != null && indexed >= version) {
+            return;
+        }
+        versions.put(product.getId(), version);
+        indexes.forEach(index -> index.add(product));
+    }
+
+    private synchronized void remove(Long productId, long version) {
+        // 删除是终态，总是执行；记录的版本只增不减，之后迟到的旧数据不会把商品加回来
+        versions.merge(productId, version, Math::max);
+        indexes.forEach(index -> index.remove(productId));
+    }
+}
@@ -0,0 +1,225 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 商品全文搜索的内存倒排索引：词 → 商品 ID 位图，每个商品保存按词编号排序的加权词频，用 BM25 打分。
+ * 字段权重 name 3、tags 2、description 1 (description 只索引前 512 个字符)。
+ * 先要求包含全部索引中存在的查询词 (位图交集)，交集为空时退化为包含任一查询词 (并集)；
+ * 候选过多时只对最新的 search.max-candidates 个商品打分，保证延迟与商品总数无关。
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Value("${search.max-candidates:20000}")
+    private int maxCandidates = 20000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Roaring64NavigableMap> postings = new ArrayList<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * 单个商品的索引数据，termIds 升序排列，frequencies 为对应的加权词频
+     */
+    private record Document(int[] termIds, int[] frequencies, int length) {
+        int frequency(int termId) {
+            int index = Arrays.binarySearch(termIds, termId);
+            return index >= 0 ? frequencies[index] : 0;
+        }
+    }
+
+    public record Hit(long productId, double score) {
+    }
+
+    /**
+     * total 为命中的商品总数，hits 按相关度倒序
+     */
+    public record Result(long total, List<Hit> hits) {
+    }
+
+    @Override
+    public void add(Product product) {
+        Map<String, Integer> weighted = new HashMap<>();
+        addField(weighted, product.getName(), NAME_WEIGHT);
+        addField(weighted, product.getTags(), TAG_WEIGHT);
+        String description = product.getDescription();
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+        }
+        addField(weighted, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            if (weighted.isEmpty()) {
+                return;
+            }
+            TreeMap<Integer, Integer> frequencies = new TreeMap<>();
+            weighted.forEach((term, frequency) -> frequencies.put(termId(term), frequency));
+            int[] ids = new int[frequencies.size()];
+            int[] values = new int[frequencies.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : frequencies.entrySet()) {
+                ids[i] = entry.getKey();
+                values[i] = entry.getValue();
+                length += entry.getValue();
+                postings.get(entry.getKey()).addLong(product.getId());
+                i++;
+            }
+            documents.put(product.getId(), new Document(ids, values, length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(ProductTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new Result(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Integer> queryTermIds = new ArrayList<>();
+            for (String term : terms) {
+                Integer id = termIds.get(term);
+                if (id != null && !postings.get(id).isEmpty()) {
+                    queryTermIds.add(id);
+                }
+            }
+            if (queryTermIds.isEmpty()) {
+                return new Result(0, List.of());
+            }
+
+            // 索引中不存在的词 (多为跨词的 bigram，如「草莓蛋糕」中的「莓蛋」) 不参与交集
+            Roaring64NavigableMap candidates = intersect(queryTermIds);
+            if (candidates.isEmpty()) {
+                candidates = union(queryTermIds);
+            }
+
+            double[] idf = new double[queryTermIds.size()];
+            long documentCount = documents.size();
+            for (int i = 0; i < idf.length; i++) {
+                long df = postings.get(queryTermIds.get(i)).getLongCardinality();
+                idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+            double averageLength = (double) totalLength / Math.max(documentCount, 1);
+
+            // 小顶堆保留得分最高的 limit 个
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            LongIterator iterator = candidates.getReverseLongIterator();
+            int scored = 0;
+            while (iterator.hasNext() && scored < maxCandidates) {
+                long productId = iterator.next();
+                Document document = documents.get(productId);
+                double score = score(document, queryTermIds, idf, averageLength);
+                scored++;
+                if (top.size() < limit) {
+                    top.add(new Hit(productId, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(productId, score));
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return new Result(candidates.getLongCardinality(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addField(Map<String, Integer> weighted, String text, int weight) {
+        for (String token : ProductTokenizer.tokenize(text)) {
+            weighted.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private int termId(String term) {
+        return termIds.computeIfAbsent(term, key -> {
+            // 索引中的位图会被多个读线程同时访问，关闭基数缓存避免读操作修改内部状态
+            postings.add(new Roaring64NavigableMap(false, false));
+            return postings.size() - 1;
+        });
+    }
+
+    private void removeInternal(Long productId) {
+        Document document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (int termId : document.termIds()) {
+            postings.get(termId).removeLong(productId);
+        }
+        totalLength -= document.length();
+    }
+
+    private Roaring64NavigableMap intersect(List<Integer> queryTermIds) {
+        // 从最短的倒排表开始求交集
+        List<Roaring64NavigableMap> lists = new ArrayList<>();
+        queryTermIds.forEach(id -> lists.add(postings.get(id)));
+        lists.sort(Comparator.comparingLong(Roaring64NavigableMap::getLongCardinality));
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        result.or(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    private Roaring64NavigableMap union(List<Integer> queryTermIds) {
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        queryTermIds.forEach(id -> result.or(postings.get(id)));
+        return result;
+    }
+
+    private static double score(Document document, List<Integer> queryTermIds, double[] idf, double averageLength) {
+        double norm = K1 * (1 - B + B * document.length() / averageLength);
+        double score = 0;
+        for (int i = 0; i < idf.length; i++) {
+            int frequency = document.frequency(queryTermIds.get(i));
+            if (frequency > 0) {
+                score += idf[i] * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+        return score;
+    }
+}
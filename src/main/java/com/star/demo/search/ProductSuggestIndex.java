@@ -0,0 +1,309 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 商品名称前缀补全：字典树的每个节点预先保存该前缀下销量最高的 maxResults 个商品，
+ * 查询只需沿前缀走到对应节点，与商品总数无关，也不访问数据库。
+ * 子节点用有序数组保存 (二分查找)，深度超过 MAX_DEPTH 的名称挂在最深的节点上，查询更长的前缀时再逐个比较。
+ */
+@Component
+public class ProductSuggestIndex implements ProductIndex {
+
+    static final int MAX_DEPTH = 12;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    @Value("${suggest.max-results:10}")
+    private int maxResults = 10;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Long> popularity = new HashMap<>();
+
+    /**
+     * key 为规范化后的名称 (NFKC + 小写)
+     */
+    private record Entry(String name, String key) {
+    }
+
+    public record Suggestion(long productId, String name) {
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        // 该前缀下热度最高的商品，按热度倒序
+        private long[] top = NO_IDS;
+        // 名称在此结束 (或超过 MAX_DEPTH 被截断) 的商品
+        private Set<Long> products;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = node;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && (products == null || products.isEmpty());
+        }
+    }
+
+    public static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 启动时先载入各商品的销量，再由 ProductIndexer 逐个 add
+     */
+    public void loadPopularity(Map<Long, Long> sales) {
+        lock.writeLock().lock();
+        try {
+            popularity.putAll(sales);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 订单提交后增加商品热度，只会提高排名，沿路径调整各节点的 top 即可
+     */
+    public void recordSales(Long productId, long quantity) {
+        lock.writeLock().lock();
+        try {
+            popularity.merge(productId, quantity, Long::sum);
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                for (Node node : path(entry.key(), false)) {
+                    offer(node, productId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Product product) {
+        if (product.getName() == null) {
+            remove(product.getId());
+            return;
+        }
+        Entry entry = new Entry(product.getName(), normalize(product.getName()));
+        if (entry.key().isEmpty()) {
+            remove(product.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.get(product.getId());
+            if (old != null && old.key().equals(entry.key())) {
+                entries.put(product.getId(), entry);
+                return;
+            }
+            removeInternal(product.getId());
+            entries.put(product.getId(), entry);
+            List<Node> path = path(entry.key(), true);
+            Node last = path.get(path.size() - 1);
+            if (last.products == null) {
+                last.products = new HashSet<>();
+            }
+            last.products.add(product.getId());
+            for (Node node : path) {
+                offer(node, product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = Math.min(key.length(), MAX_DEPTH);
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>();
+            if (key.length() <= MAX_DEPTH) {
+                for (int i = 0; i < node.top.length && ids.size() < limit; i++) {
+                    ids.add(node.top[i]);
+                }
+            } else if (node.products != null) {
+                // 超过字典树深度的前缀，在最深节点的商品中逐个比较
+                node.products.stream()
+                    .filter(id -> entries.get(id).key().startsWith(key))
+                    .sorted(ranking())
+                    .limit(limit)
+                    .forEach(ids::add);
+            }
+            List<Suggestion> suggestions = new ArrayList<>(ids.size());
+            ids.forEach(id -> suggestions.add(new Suggestion(id, entries.get(id).name())));
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        List<Node> path = path(entry.key(), false);
+        Node last = path.get(path.size() - 1);
+        if (last.products != null) {
+            last.products.remove(productId);
+        }
+        // 自底向上重新计算 top，并清理空节点
+        String key = entry.key();
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            if (depth > 0 && node.isEmpty()) {
+                path.get(depth - 1).removeChild(key.charAt(depth - 1));
+            } else {
+                recompute(node);
+            }
+        }
+    }
+
+    /**
+     * 返回从根到 key 对应节点的路径 (包含根节点，最多 MAX_DEPTH 层)
+     */
+    private List<Node> path(String key, boolean create) {
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        List<Node> path = new ArrayList<>(depth + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < depth; i++) {
+            node = create ? node.getOrCreateChild(key.charAt(i)) : node.child(key.charAt(i));
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void offer(Node node, long productId) {
+        long[] top = node.top;
+        boolean present = false;
+        for (long id : top) {
+            if (id == productId) {
+                present = true;
+                break;
+            }
+        }
+        if (!present) {
+            if (top.length < maxResults) {
+                top = Arrays.copyOf(top, top.length + 1);
+                top[top.length - 1] = productId;
+            } else if (ranking().compare(productId, top[top.length - 1]) < 0) {
+                top = top.clone();
+                top[top.length - 1] = productId;
+            } else {
+                return;
+            }
+        } else {
+            top = top.clone();
+        }
+        node.top = sortByRanking(top);
+    }
+
+    private void recompute(Node node) {
+        Set<Long> candidates = new HashSet<>();
+        if (node.products != null) {
+            candidates.addAll(node.products);
+        }
+        for (Node child : node.children) {
+            for (long id : child.top) {
+                candidates.add(id);
+            }
+        }
+        node.top = candidates.stream()
+            .sorted(ranking())
+            .limit(maxResults)
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    private long[] sortByRanking(long[] ids) {
+        return Arrays.stream(ids).boxed().sorted(ranking()).mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * 热度高的在前，热度相同按名称长度 (越短越接近用户输入)，再按 ID
+     */
+    private Comparator<Long> ranking() {
+        return Comparator.<Long>comparingLong(id -> -popularity.getOrDefault(id, 0L))
+            .thenComparingInt(id -> entries.get(id).key().length())
+            .thenComparingLong(Long::longValue);
+    }
+}
@@ -0,0 +1,185 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * 标签倒排索引：每个标签对应一个商品 ID 的 Roaring 压缩位图，
+ * 多标签过滤即位图的交集 (and) / 并集 (or)，不需要对 tags 列做 LIKE 扫描
+ */
+@Component
+public class ProductTagIndex implements ProductIndex {
+
+    public static final int FACET_LIMIT = 20;
+
+    private static final Pattern TAG_SEPARATOR = Pattern.compile("[,，]");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Roaring64NavigableMap> bitmaps = new HashMap<>();
+    private final Map<Long, Set<String>> tagsByProduct = new HashMap<>();
+
+    /**
+     * 过滤结果：total 为命中总数，productIds 为当前页 (按 ID 升序)，facets 为命中商品中各标签的数量
+     */
+    public record Match(long total, List<Long> productIds, Map<String, Long> facets) {
+    }
+
+    /**
+     * 标签规范化：支持中英文逗号分隔，去空白、转小写、去重并保持原有顺序
+     */
+    public static Set<String> parse(String tags) {
+        Set<String> result = new LinkedHashSet<>();
+        if (tags == null) {
+            return result;
+        }
+        for (String tag : TAG_SEPARATOR.split(tags)) {
+            String normalized = tag.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                result.add(normalized);
+            }
+        }
+        return result;
+    }
+
+    public static String normalize(String tags) {
+        return tags == null ? null : String.join(",", parse(tags));
+    }
+
+    @Override
+    public void add(Product product) {
+        Set<String> tags = parse(product.getTags());
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            // 索引中的位图会被多个读线程同时访问，关闭基数缓存避免读操作修改内部状态
+            for (String tag : tags) {
+                bitmaps.computeIfAbsent(tag, key -> new Roaring64NavigableMap(false, false)).addLong(product.getId());
+            }
+            tagsByProduct.put(product.getId(), tags);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        Set<String> oldTags = tagsByProduct.remove(productId);
+        if (oldTags == null) {
+            return;
+        }
+        for (String tag : oldTags) {
+            Roaring64NavigableMap bitmap = bitmaps.get(tag);
+            if (bitmap != null) {
+                bitmap.removeLong(productId);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param matchAll true 为 and (同时包含所有标签)，false 为 or (包含任一标签)
+     */
+    public Match query(Collection<String> tags, boolean matchAll, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap result = combine(tags, matchAll);
+            long total = result.getLongCardinality();
+            List<Long> productIds = new ArrayList<>();
+            for (long i = offset; i < total && productIds.size() < limit; i++) {
+                productIds.add(result.select(i));
+            }
+            return new Match(total, productIds, facets(result, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Roaring64NavigableMap combine(Collection<String> tags, boolean matchAll) {
+        Roaring64NavigableMap result = null;
+        for (String tag : tags) {
+            Roaring64NavigableMap bitmap = bitmaps.get(tag);
+            if (bitmap == null) {
+                if (matchAll) {
+                    return new Roaring64NavigableMap();
+                }
+                continue;
+            }
+            if (result == null) {
+                // 复制一份，避免修改索引中的位图
+                result = new Roaring64NavigableMap();
+                result.or(bitmap);
+            } else if (matchAll) {
+                result.and(bitmap);
+            } else {
+                result.or(bitmap);
+            }
+        }
+        return result == null ? new Roaring64NavigableMap() : result;
+    }
+
+    /**
+     * 命中数不超过索引中的标签数时逐个累加命中商品自身的标签，代价与命中数成正比；
+     * 否则用每个标签的位图与结果求交集，代价与标签总数成正比
+     */
+    private Map<String, Long> facets(Roaring64NavigableMap result, long total) {
+        Map<String, Long> facets = new LinkedHashMap<>();
+        if (total == 0) {
+            return facets;
+        }
+        List<Map.Entry<String, Long>> counts = total <= bitmaps.size() ? countByHits(result) : countByBitmaps(result);
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+        counts.stream().limit(FACET_LIMIT).forEach(entry -> facets.put(entry.getKey(), entry.getValue()));
+        return facets;
+    }
+
+    private List<Map.Entry<String, Long>> countByHits(Roaring64NavigableMap result) {
+        Map<String, Long> counts = new HashMap<>();
+        result.forEach(productId -> {
+            for (String tag : tagsByProduct.getOrDefault(productId, Set.of())) {
+                counts.merge(tag, 1L, Long::sum);
+            }
+        });
+        return new ArrayList<>(counts.entrySet());
+    }
+
+    private List<Map.Entry<String, Long>> countByBitmaps(Roaring64NavigableMap result) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, Roaring64NavigableMap> entry : bitmaps.entrySet()) {
+            Roaring64NavigableMap intersection = new Roaring64NavigableMap();
+            intersection.or(entry.getValue());
+            intersection.and(result);
+            long count = intersection.getLongCardinality();
+            if (count > 0) {
+                counts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,37 @@
+package com.star.demo.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * 每个请求只解析一次 token 得到的登录用户信息
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class AuthenticatedUser {
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    private Long userId;
+    private String email;
+    private String role;
+    private String token;
+    // jti，注销时按它吊销
+    private String tokenId;
+    private Instant expiresAt;
+
+    public static AuthenticatedUser fromClaims(String token, Claims claims) {
+        return AuthenticatedUser.builder()
+            .userId(claims.get("userId", Long.class))
+            .email(claims.getSubject())
+            .role(claims.get("role", String.class))
+            .token(token)
+            .tokenId(claims.getId())
+            .expiresAt(claims.getExpiration().toInstant())
+            .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.star.demo.security;
 
+import com.star.demo.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,13 +22,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         Optional<String> token = jwtUtil.extractToken(request);
-        if (token.isPresent() && jwtUtil.validateToken(token.get())) {
+        // 已注销的 token 按未登录处理
+        Optional<Claims> claims = token.flatMap(jwtUtil::validateAndExtractClaims)
+                .filter(value -> !tokenRevocationService.isRevoked(value.getId()));
+        if (claims.isPresent()) {
+            // 每个请求只解析一次 token，后续拦截器和控制器从 request attribute 读取
+            AuthenticatedUser user = AuthenticatedUser.fromClaims(token.get(), claims.get());
+            request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user);
             // Set authentication in the context
-            UsernamePasswordAuthenticationToken authentication = jwtUtil.getAuthentication(token.get());
+            UsernamePasswordAuthenticationToken authentication = jwtUtil.getAuthentication(user);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
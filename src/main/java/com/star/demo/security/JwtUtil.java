@@ -1,8 +1,16 @@
 package com.star.demo.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +21,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -25,23 +35,80 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long jwtExpirationInSeconds;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    /**
+     * 剩余有效期少于该值 (秒) 时 /api/auth/ping 才签发新 token
+     */
+    @Value("${jwt.renew-window:3600}")
+    private long renewWindowInSeconds;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    /**
+     * 已验证的 Claims 缓存，按 token 过期时间淘汰，避免同一请求内多次 HMAC 校验
+     */
+    private Cache<String, Claims> claimsCache;
+
+    private Counter signed;
+    private Counter renewed;
+    private Counter reused;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+        signed = Counter.builder("jwt.signed")
+                .description("JWT tokens signed (login, register and renewal)")
+                .register(meterRegistry);
+        renewed = Counter.builder("jwt.renewals")
+                .tag("result", "renewed")
+                .description("Ping requests that were issued a new token")
+                .register(meterRegistry);
+        reused = Counter.builder("jwt.renewals")
+                .tag("result", "reused")
+                .description("Ping requests that kept their current token")
+                .register(meterRegistry);
     }
 
     public String generateToken(String email, Long userId, String role) {
+        signed.increment();
         Instant now = Instant.now();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .claim("userId", userId)
                 .claim("role", role)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusSeconds(jwtExpirationInSeconds)))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * 续期当前 token：剩余有效期不足 jwt.renew-window 或用户信息已变化时签发新 token，否则原样返回
+     */
+    public String renewToken(AuthenticatedUser current, String email, Long userId, String role) {
+        boolean unchanged = email.equals(current.getEmail()) && userId.equals(current.getUserId())
+                && role.equals(current.getRole());
+        if (unchanged && current.getExpiresAt().isAfter(Instant.now().plusSeconds(renewWindowInSeconds))) {
+            reused.increment();
+            return current.getToken();
+        }
+        renewed.increment();
+        return generateToken(email, userId, role);
+    }
+
     public Optional<String> extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -51,11 +118,8 @@ public class JwtUtil {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        // 解析失败的 token 直接抛出异常，不会写入缓存
+        return claimsCache.get(token, key -> parser.parseSignedClaims(key).getPayload());
     }
 
     public String extractEmail(String token) {
@@ -75,21 +139,48 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
+        return validateAndExtractClaims(token).isPresent();
+    }
+
+    /**
+     * 校验 token 并返回 Claims，无效或过期时返回空
+     */
+    public Optional<Claims> validateAndExtractClaims(String token) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration().before(Date.from(Instant.now()))) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    public UsernamePasswordAuthenticationToken getAuthentication(String token) {
-        Claims claims = extractAllClaims(token);
+    public UsernamePasswordAuthenticationToken getAuthentication(AuthenticatedUser user) {
         UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(claims.getSubject())
+                .username(user.getEmail())
                 .password("")
-                .authorities(new SimpleGrantedAuthority("ROLE_" + claims.get("role", String.class)))
+                .authorities(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
                 .build();
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
+
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package com.star.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.star.demo.common.ErrorCode;
+import com.star.demo.dto.response.UserResponse;
+import com.star.demo.exception.BusinessException;
+import com.star.demo.model.Order;
+import com.star.demo.model.Product;
+import com.star.demo.model.User;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 流式导出：逐行从数据库读取并直接写入输出流，内存占用与表大小无关
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    @Getter
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException(ErrorCode.PARAM_ERROR, "不支持的导出格式: " + value));
+        }
+    }
+
+    @Resource
+    private OrderRepository orderRepository;
+
+    @Resource
+    private ProductRepository productRepository;
+
+    @Resource
+    private UserRepository userRepository;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    // PostgreSQL 只有在 autocommit 关闭时才按 fetchSize 分批读取，因此需要只读事务
+    @Transactional(readOnly = true)
+    public void exportOrders(Format format, OutputStream out) throws IOException {
+        export(format, out,
+            List.of("id", "user_id", "total_price", "status", "created_at", "updated_at", "address", "phone"),
+            (Order order) -> Arrays.asList(order.getId(), order.getUserId(), order.getTotalPrice(), order.getStatus(),
+                order.getCreatedAt(), order.getUpdatedAt(), order.getAddress(), order.getPhone()),
+            Function.identity(),
+            handler -> orderRepository.getBaseMapper().streamAll(handler));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportProducts(Format format, OutputStream out) throws IOException {
+        export(format, out,
+            List.of("id", "name", "price", "description", "uploader_id", "upload_time", "tags", "image_url"),
+            (Product product) -> Arrays.asList(product.getId(), product.getName(), product.getPrice(), product.getDescription(),
+                product.getUploaderId(), product.getUploadTime(), product.getTags(), product.getImageUrl()),
+            Function.identity(),
+            handler -> productRepository.getBaseMapper().streamAll(handler));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(Format format, OutputStream out) throws IOException {
+        // 不导出密码
+        export(format, out,
+            List.of("id", "email", "role"),
+            (User user) -> Arrays.asList(user.getId(), user.getEmail(), user.getRole()),
+            UserResponse::fromUser,
+            handler -> userRepository.getBaseMapper().streamAll(handler));
+    }
+
+    private <T> void export(Format format, OutputStream out, List<String> header,
+            Function<T, List<?>> toCsvRow, Function<T, ?> toJson,
+            Consumer<ResultHandler<T>> query) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvLine(writer, header);
+        }
+        try {
+            query.accept(context -> {
+                T row = context.getResultObject();
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvLine(writer, toCsvRow.apply(row));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(toJson.apply(row)));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // MyBatis 会把 ResultHandler 抛出的异常包装成 PersistenceException / MyBatisSystemException，
+            // 沿异常链找回写出失败 (客户端中断下载) 的 IOException
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException unchecked) {
+                    throw unchecked.getCause();
+                }
+            }
+            throw e;
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
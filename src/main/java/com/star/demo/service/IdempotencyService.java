@@ -0,0 +1,98 @@
+package com.star.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.star.demo.common.ErrorCode;
+import com.star.demo.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 支持：同一个 key 的第一次执行结果被保存并在重试时直接返回，
+ * 并发的重复请求等待正在执行的那一次，而不是再执行一遍
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+    private final Counter replayedCounter;
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+            @Value("${idempotency.max-entries:100000}") long maxEntries,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeout = waitTimeout;
+        this.replayedCounter = Counter.builder("idempotency.replayed")
+                .description("Requests answered from a stored idempotent result")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key     调用方的 Idempotency-Key，需已带上用户等作用域前缀
+     * @param request 请求体，用于发现同一个 key 被不同请求复用
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object request, Supplier<T> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "Idempotency-Key 过长");
+        }
+        Entry created = new Entry(Objects.hashCode(request), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            if (existing.fingerprint() != created.fingerprint()) {
+                throw new BusinessException(ErrorCode.PARAM_ERROR, "Idempotency-Key 已被用于不同的请求");
+            }
+            replayedCounter.increment();
+            return (T) await(existing.result());
+        }
+
+        try {
+            T result = action.get();
+            created.result().complete(result);
+            return result;
+        } catch (Throwable e) {
+            // 失败的请求 (包括 Error) 不保存结果，允许客户端用同一个 key 重试
+            entries.asMap().remove(key, created);
+            created.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.SERVICE_BUSY, "相同的请求正在处理中，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待请求结果被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "请求处理失败");
+        }
+    }
+
+    private record Entry(int fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.star.demo.service;
+
+import com.star.demo.common.ErrorCode;
+import com.star.demo.exception.BusinessException;
+import com.star.demo.model.Order;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 订单组提交模式 (order.ingestion.enabled)：下单请求进入有界队列，写入线程按微批次取出，
+ * 多个订单及其明细在同一个事务中批量提交，减少高峰期对连接池的占用。
+ * 每个调用方仍然得到自己的订单或错误。
+ */
+@Slf4j
+@Service
+public class OrderIngestionService {
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Getter
+    @Value("${order.ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${order.ingestion.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${order.ingestion.max-wait:5ms}")
+    private Duration maxWait;
+
+    @Value("${order.ingestion.writers:1}")
+    private int writers;
+
+    @Value("${order.ingestion.submit-timeout:10s}")
+    private Duration submitTimeout;
+
+    private BlockingQueue<PendingOrder> queue;
+    private final List<Thread> writerThreads = new ArrayList<>();
+    private volatile boolean running;
+    private DistributionSummary batchSize;
+    private Timer commitTimer;
+
+    /**
+     * claimed 由写入线程 (准备提交) 或超时的调用方 (放弃) 抢占，保证超时放弃的订单不会再被提交
+     */
+    private record PendingOrder(Order order, CompletableFuture<Order> result, AtomicBoolean claimed) {
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("order.ingestion.queue.depth", queue, BlockingQueue::size)
+            .description("Orders waiting to be written")
+            .register(meterRegistry);
+        batchSize = DistributionSummary.builder("order.ingestion.batch.size")
+            .description("Orders committed per transaction")
+            .register(meterRegistry);
+        commitTimer = Timer.builder("order.ingestion.batch.commit")
+            .description("Time to commit one micro-batch")
+            .register(meterRegistry);
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(this::writeLoop, "order-ingestion-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            writerThreads.add(thread);
+        }
+        log.info("订单组提交模式已启用, 队列容量 {}, 批次上限 {}", queueCapacity, maxBatchSize);
+    }
+
+    /**
+     * 提交订单并等待所在批次提交完成
+     */
+    public Order submit(Order order) {
+        PendingOrder pending = new PendingOrder(order, new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !queue.offer(pending)) {
+            throw new BusinessException(ErrorCode.SERVICE_BUSY, "下单请求过多，请稍后重试");
+        }
+        try {
+            try {
+                return pending.result().get(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending) || pending.claim()) {
+                    // 尚未开始提交，放弃后不会再写入，客户端可以安全重试
+                    pending.result().cancel(false);
+                    throw new BusinessException(ErrorCode.SERVICE_BUSY, "下单处理超时，请稍后重试");
+                }
+                // 已在提交中的批次里，等待最终结果，避免客户端重试产生重复订单
+                return pending.result().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "下单被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建订单失败");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(
+                    new BusinessException(ErrorCode.SERVICE_BUSY, "服务正在关闭")));
+                return;
+            } catch (Throwable e) {
+                // 包括 Error：让等待的调用方拿到错误，写入线程继续处理后续批次
+                log.error("订单批次处理异常, 批次大小 {}", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(
+                    new BusinessException(ErrorCode.SYSTEM_ERROR, "创建订单失败")));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 在 max-wait 内尽量凑满一个批次
+     */
+    private void fillBatch(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        // 跳过调用方已超时放弃的订单
+        batch.removeIf(pending -> !pending.claim());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+        List<Order> orders = batch.stream().map(PendingOrder::order).toList();
+        try {
+            commitTimer.record(() -> {
+                orderService.createOrders(orders);
+            });
+            batch.forEach(pending -> pending.result().complete(pending.order()));
+        } catch (RuntimeException e) {
+            // 批次失败 (如某个订单的商品不存在) 时逐个重试，让每个调用方拿到自己的结果或错误
+            log.warn("订单批次提交失败, 逐个重试, 批次大小 {}: {}", batch.size(), e.getMessage());
+            for (PendingOrder pending : batch) {
+                // 回滚后清掉批量插入时回填的主键
+                pending.order().setId(null);
+                pending.order().getItems().forEach(item -> item.setId(null));
+                try {
+                    pending.result().complete(orderService.createOrder(pending.order()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writerThreads.forEach(Thread::interrupt);
+        if (queue != null) {
+            PendingOrder pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result().completeExceptionally(new BusinessException(ErrorCode.SERVICE_BUSY, "服务正在关闭"));
+            }
+        }
+    }
+}
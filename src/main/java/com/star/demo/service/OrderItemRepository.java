@@ -1,10 +1,40 @@
 package com.star.demo.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.star.demo.mapper.OrderItemMapper;
 import com.star.demo.model.OrderItem;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Repository
 public class OrderItemRepository extends ServiceImpl<OrderItemMapper, OrderItem> {
-} 
\ No newline at end of file
+
+    /**
+     * 一次 IN 查询取出多个订单的明细，并按 orderId 分组
+     */
+    public Map<Long, List<OrderItem>> listGroupedByOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        QueryWrapper<OrderItem> queryWrapper = new QueryWrapper<>();
+        queryWrapper.in("order_id", orderIds);
+        return list(queryWrapper).stream()
+            .collect(Collectors.groupingBy(OrderItem::getOrderId));
+    }
+
+    /**
+     * 各商品累计销量 (productId → 数量)，用于商品热度排序
+     */
+    public Map<Long, Long> sumQuantityByProduct() {
+        QueryWrapper<OrderItem> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("product_id", "SUM(quantity) AS quantity").groupBy("product_id");
+        return list(queryWrapper).stream()
+            .collect(Collectors.toMap(OrderItem::getProductId, item -> item.getQuantity().longValue()));
+    }
+}
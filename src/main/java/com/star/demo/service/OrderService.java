@@ -2,18 +2,26 @@ package com.star.demo.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.star.demo.annotation.ReplicaRead;
 import com.star.demo.common.ErrorCode;
+import com.star.demo.dto.response.CursorPage;
 import com.star.demo.exception.BusinessException;
 import com.star.demo.model.Order;
 import com.star.demo.model.OrderItem;
 import com.star.demo.model.Product;
+import com.star.demo.search.ProductSuggestIndex;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,24 +37,26 @@ public class OrderService {
     @Resource
     private OrderItemRepository orderItemRepository;
 
+    @Resource
+    private StockService stockService;
+
+    @Resource
+    private ProductSuggestIndex productSuggestIndex;
+
     @Transactional
     public Order createOrder(Order order) {
-        double totalPrice = 0.0;
-        for (OrderItem item : order.getItems()) {
-            Product product = productService.getProductById(item.getProductId());
-            item.setPrice(product.getPrice());
-            totalPrice += product.getPrice() * item.getQuantity();
-        }
-        order.setTotalPrice(totalPrice);
-        order.setStatus("PENDING");
-        order.setCreatedAt(LocalDateTime.now());
+        // 一次查询取出所有商品价格
+        Map<Long, Product> productsById = productService.getProductsByIds(productIdsOf(List.of(order)));
+        applyPricing(order, productsById);
+        // 库存扣减与订单写入在同一事务中，下单失败时一并回滚
+        stockService.reserve(List.of(order));
         
         try {
             orderRepository.save(order);
-            for (OrderItem item : order.getItems()) {
-                item.setOrderId(order.getId());
-                orderItemRepository.save(item);
-            }
+            order.getItems().forEach(item -> item.setOrderId(order.getId()));
+            // JDBC 批量写入，配合 reWriteBatchedInserts 合并为多行 INSERT
+            orderItemRepository.saveBatch(order.getItems());
+            recordSalesAfterCommit(List.of(order));
             return order;
         } catch (Exception e) {
             log.error("创建订单失败", e);
@@ -54,6 +64,69 @@ public class OrderService {
         }
     }
 
+    /**
+     * 在同一个事务中批量创建多个订单 (订单与明细均使用 JDBC 批量写入)，任何一个失败则全部回滚
+     */
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        Map<Long, Product> productsById = productService.getProductsByIds(productIdsOf(orders));
+        orders.forEach(order -> applyPricing(order, productsById));
+        stockService.reserve(orders);
+
+        try {
+            orderRepository.saveBatch(orders);
+            List<OrderItem> items = new ArrayList<>();
+            for (Order order : orders) {
+                order.getItems().forEach(item -> item.setOrderId(order.getId()));
+                items.addAll(order.getItems());
+            }
+            orderItemRepository.saveBatch(items);
+            recordSalesAfterCommit(orders);
+            return orders;
+        } catch (Exception e) {
+            log.error("批量创建订单失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建订单失败");
+        }
+    }
+
+    /**
+     * 事务提交后再更新商品热度，回滚的订单不计入
+     */
+    private void recordSalesAfterCommit(List<Order> orders) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orders.forEach(order -> order.getItems().forEach(item ->
+                    productSuggestIndex.recordSales(item.getProductId(), item.getQuantity())));
+            }
+        });
+    }
+
+    private Set<Long> productIdsOf(List<Order> orders) {
+        return orders.stream()
+            .flatMap(order -> order.getItems().stream())
+            .map(OrderItem::getProductId)
+            .collect(Collectors.toSet());
+    }
+
+    private void applyPricing(Order order, Map<Long, Product> productsById) {
+        double totalPrice = 0.0;
+        for (OrderItem item : order.getItems()) {
+            Product product = productsById.get(item.getProductId());
+            if (product == null) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在: " + item.getProductId());
+            }
+            item.setPrice(product.getPrice());
+            totalPrice += product.getPrice() * item.getQuantity();
+        }
+        order.setTotalPrice(totalPrice);
+        order.setStatus("PENDING");
+        order.setCreatedAt(LocalDateTime.now());
+    }
+
     private List<OrderItem> getOrderItems(Long orderId) {
         QueryWrapper<OrderItem> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("order_id", orderId);
@@ -67,6 +140,19 @@ public class OrderService {
         return order;
     }
 
+    /**
+     * 批量加载订单明细，整页订单只查询一次 order_items，避免 N+1
+     */
+    private List<Order> loadOrderItems(List<Order> orders) {
+        List<Long> orderIds = orders.stream()
+            .map(Order::getId)
+            .collect(Collectors.toList());
+        Map<Long, List<OrderItem>> itemsByOrderId = orderItemRepository.listGroupedByOrderIds(orderIds);
+        orders.forEach(order -> order.setItems(itemsByOrderId.getOrDefault(order.getId(), new ArrayList<>())));
+        return orders;
+    }
+
+    @ReplicaRead
     public Order getOrderById(Long id) {
         Order order = orderRepository.getById(id);
         if (order == null) {
@@ -75,13 +161,41 @@ public class OrderService {
         return loadOrderItems(order);
     }
 
+    @ReplicaRead
     public List<Order> getAllOrders(int page, int size) {
         Page<Order> pageParam = new Page<>(page, size);
         QueryWrapper<Order> queryWrapper = new QueryWrapper<>();
         queryWrapper.orderByDesc("created_at");
-        return orderRepository.page(pageParam, queryWrapper).getRecords().stream()
-            .map(this::loadOrderItems)
-            .collect(Collectors.toList());
+        return loadOrderItems(orderRepository.page(pageParam, queryWrapper).getRecords());
+    }
+
+    /**
+     * 游标分页：按 id 倒序取 beforeId 之前的订单，不做 COUNT
+     */
+    @ReplicaRead
+    public CursorPage<Order> getOrdersBefore(String cursor, int size) {
+        return getOrdersBefore(null, cursor, size);
+    }
+
+    /**
+     * 某个用户的订单游标分页，走 (user_id, id DESC) 索引
+     */
+    @ReplicaRead
+    public CursorPage<Order> getUserOrdersBefore(Long userId, String cursor, int size) {
+        return getOrdersBefore(userId, cursor, size);
+    }
+
+    private CursorPage<Order> getOrdersBefore(Long userId, String cursor, int size) {
+        Long beforeId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        QueryWrapper<Order> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq(userId != null, "user_id", userId)
+            .lt(beforeId != null, "id", beforeId)
+            .orderByDesc("id")
+            .last("LIMIT " + (pageSize + 1));
+        CursorPage<Order> result = CursorPage.of(orderRepository.list(queryWrapper), pageSize, Order::getId);
+        loadOrderItems(result.getRecords());
+        return result;
     }
 
     @Transactional
@@ -99,11 +213,10 @@ public class OrderService {
         }
     }
 
+    @ReplicaRead
     public List<Order> getUserOrders(Long userId) {
         QueryWrapper<Order> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("user_id", userId);
-        return orderRepository.list(queryWrapper).stream()
-            .map(this::loadOrderItems)
-            .collect(Collectors.toList());
+        return loadOrderItems(orderRepository.list(queryWrapper));
     }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import com.star.demo.mapper.ProductMapper;
 import com.star.demo.model.Product;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class ProductRepository extends CrudRepository<ProductMapper, Product> {
 
@@ -19,4 +21,30 @@ public class ProductRepository extends CrudRepository<ProductMapper, Product> {
         QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
         return baseMapper.selectPage(page, queryWrapper);
     }
+
+    /**
+     * 游标分页：按 id 升序取 afterId 之后的 limit 条，不做 COUNT
+     */
+    public List<Product> selectAfter(Long afterId, int limit) {
+        QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
+        queryWrapper.gt(afterId != null, "id", afterId)
+                .orderByAsc("id")
+                .last("LIMIT " + limit);
+        return baseMapper.selectList(queryWrapper);
+    }
+
+    /**
+     * 按订单批量扣减库存，返回扣减成功的商品数
+     */
+    public int decrementStock(Long[] productIds, Integer[] quantities) {
+        return baseMapper.decrementStock(productIds, quantities);
+    }
+
+    public Integer leaseStock(Long productId, int quantity) {
+        return baseMapper.leaseStock(productId, quantity);
+    }
+
+    public int returnStock(Long productId, int quantity) {
+        return baseMapper.returnStock(productId, quantity);
+    }
 }
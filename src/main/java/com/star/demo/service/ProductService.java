@@ -1,34 +1,212 @@
 package com.star.demo.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.star.demo.cache.CacheInvalidationBus;
+import com.star.demo.annotation.ReplicaRead;
+import com.star.demo.common.ErrorCode;
+import com.star.demo.dto.response.CursorPage;
+import com.star.demo.dto.response.ProductSuggestion;
+import com.star.demo.dto.response.SearchPage;
+import com.star.demo.dto.response.TagFilterPage;
+import com.star.demo.exception.BusinessException;
 import com.star.demo.model.Product;
+import com.star.demo.search.ProductIndexer;
+import com.star.demo.search.ProductSearchIndex;
+import com.star.demo.search.ProductSuggestIndex;
+import com.star.demo.search.ProductTagIndex;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 public class ProductService {
 
+    private static final int MAX_QUERY_LENGTH = 100;
+
     @Resource
     private ProductRepository productRepository;
 
+    @Resource
+    private Cache<Long, Product> productCache;
+
+    @Resource
+    private ProductIndexer productIndexer;
+
+    @Resource
+    private ProductTagIndex productTagIndex;
+
+    @Resource
+    private ProductSearchIndex productSearchIndex;
+
+    @Resource
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private StockService stockService;
+
+    /**
+     * 其他节点修改商品后清除本地缓存并刷新索引；监听重连后全部重建
+     */
+    @PostConstruct
+    public void subscribeInvalidation() {
+        cacheInvalidationBus.subscribe("products", event -> {
+            productCache.invalidate(event.id());
+            productIndexer.refresh(event.id(), event.version());
+        });
+        cacheInvalidationBus.onReset(() -> {
+            productCache.invalidateAll();
+            productIndexer.rebuild();
+        });
+    }
+
     public boolean updateProduct(Product product, Long productId) {
+        product.setTags(ProductTagIndex.normalize(product.getTags()));
         QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
-        return productRepository.update(product, queryWrapper.eq("id", productId));
+        boolean success = productRepository.update(product, queryWrapper.eq("id", productId));
+        productCache.invalidate(productId);
+        if (success) {
+            // 部分字段更新，重新读取完整的商品再写入索引
+            productIndexer.refresh(productId, 0);
+        }
+        return success;
     }
 
     public boolean saveProduct(Product product) {
-        return productRepository.save(product);
+        product.setTags(ProductTagIndex.normalize(product.getTags()));
+        boolean success = productRepository.save(product);
+        if (product.getId() != null) {
+            productCache.invalidate(product.getId());
+        }
+        if (success) {
+            productIndexer.refresh(product.getId(), 0);
+        }
+        return success;
     }
 
     public Product getProductById(Long id) {
-        return productRepository.getById(id);
+        // 不存在的商品返回 null，不会写入缓存；缓存未命中时读主库，避免把副本上的旧数据缓存下来
+        return productCache.get(id, productRepository::getById);
+    }
+
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // 只有未命中缓存的 ID 才会进入这一次批量查询
+        return productCache.getAll(ids, missingIds -> productRepository.listByIds(missingIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity())));
+    }
+
+    @ReplicaRead
+    public CursorPage<Product> getProductsAfter(String cursor, int size) {
+        Long afterId = CursorPage.decodeCursor(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(productRepository.selectAfter(afterId, pageSize + 1), pageSize, Product::getId);
+    }
+
+    /**
+     * 按标签过滤，命中的商品 ID 和标签统计都来自内存位图索引，只有当前页的商品需要查询 (优先走缓存)
+     */
+    public TagFilterPage<Product> getProductsByTags(String tags, String mode, int page, int size) {
+        Set<String> tagSet = ProductTagIndex.parse(tags);
+        if (tagSet.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "标签不能为空");
+        }
+        boolean matchAll;
+        if ("and".equalsIgnoreCase(mode)) {
+            matchAll = true;
+        } else if ("or".equalsIgnoreCase(mode)) {
+            matchAll = false;
+        } else {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "mode 只能为 and 或 or");
+        }
+        int current = Math.max(page, 1);
+        int pageSize = CursorPage.clampSize(size);
+
+        ProductTagIndex.Match match = productTagIndex.query(tagSet, matchAll, (long) (current - 1) * pageSize, pageSize);
+        Map<Long, Product> productsById = getProductsByIds(match.productIds());
+        List<Product> records = match.productIds().stream()
+            .map(productsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return TagFilterPage.<Product>builder()
+            .records(records)
+            .total(match.total())
+            .current(current)
+            .size(pageSize)
+            .facets(match.facets())
+            .build();
+    }
+
+    /**
+     * 全文搜索 name / description / tags，排序和命中数来自内存倒排索引
+     */
+    public SearchPage<Product> searchProducts(String query, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "搜索关键词不能为空");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "搜索关键词过长");
+        }
+        ProductSearchIndex.Result result = productSearchIndex.search(query, CursorPage.clampSize(size));
+        List<Long> productIds = result.hits().stream()
+            .map(ProductSearchIndex.Hit::productId)
+            .collect(Collectors.toList());
+        Map<Long, Product> productsById = getProductsByIds(productIds);
+        List<Product> records = productIds.stream()
+            .map(productsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return SearchPage.<Product>builder()
+            .records(records)
+            .total(result.total())
+            .build();
+    }
+
+    /**
+     * 商品名称前缀补全，按销量排序，完全由内存字典树回答
+     */
+    public List<ProductSuggestion> suggestProducts(String prefix, int size) {
+        if (prefix == null || prefix.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "无效的前缀");
+        }
+        return productSuggestIndex.suggest(prefix, Math.max(1, size)).stream()
+            .map(suggestion -> ProductSuggestion.builder()
+                .id(suggestion.productId())
+                .name(suggestion.name())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 库存只能通过补货和下单变化，PUT 商品时的 stock 字段会被忽略
+     */
+    public void restockProduct(Long id, int quantity) {
+        stockService.restock(id, quantity);
+        productCache.invalidate(id);
     }
 
     public boolean removeProductById(Long id) {
         QueryWrapper<Product> queryWrapper = new QueryWrapper<>();
-        return productRepository.remove(queryWrapper.eq("id", id));
+        boolean success = productRepository.remove(queryWrapper.eq("id", id));
+        productCache.invalidate(id);
+        productIndexer.refresh(id, 0);
+        return success;
     }
 
 }
@@ -0,0 +1,37 @@
+package com.star.demo.service;
+
+import com.baomidou.mybatisplus.extension.repository.CrudRepository;
+import com.star.demo.mapper.RevokedTokenMapper;
+import com.star.demo.model.RevokedToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+@Component
+public class RevokedTokenRepository extends CrudRepository<RevokedTokenMapper, RevokedToken> {
+
+    public void revoke(String jti, Instant expiresAt) {
+        baseMapper.insertIfAbsent(jti, expiresAt);
+    }
+
+    public boolean isRevoked(String jti) {
+        return lambdaQuery()
+            .eq(RevokedToken::getJti, jti)
+            .gt(RevokedToken::getExpiresAt, Instant.now())
+            .exists();
+    }
+
+    public void removeExpired() {
+        lambdaUpdate().le(RevokedToken::getExpiresAt, Instant.now()).remove();
+    }
+
+    public List<String> listJtis() {
+        return lambdaQuery()
+            .select(RevokedToken::getJti)
+            .list()
+            .stream()
+            .map(RevokedToken::getJti)
+            .toList();
+    }
+}
@@ -0,0 +1,215 @@
+package com.star.demo.service;
+
+import com.star.demo.common.ErrorCode;
+import com.star.demo.exception.BusinessException;
+import com.star.demo.model.Order;
+import com.star.demo.model.OrderItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 商品库存扣减。
+ * 普通商品：一个订单的所有商品用一条条件 UPDATE (stock >= 数量) 扣减，随订单事务一起提交或回滚。
+ * 热点商品 (stock.hot-products)：每次从数据库预留 stock.lease-size 件到本进程，
+ * 之后的下单在内存中 CAS 扣减，只有预留用完时才去锁一次数据库行。
+ * 进程正常退出时未售出的预留会归还数据库；进程崩溃时预留会丢失 (少卖，不会超卖)。
+ */
+@Slf4j
+@Service
+public class StockService {
+
+    @Resource
+    private ProductRepository productRepository;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${stock.hot-products:}")
+    private Set<Long> hotProducts;
+
+    @Value("${stock.lease-size:50}")
+    private int leaseSize;
+
+    private final Map<Long, StockLease> leases = new ConcurrentHashMap<>();
+    private TransactionTemplate leaseTransaction;
+    private Counter rejected;
+    private Counter leaseRefills;
+
+    /**
+     * 单个热点商品在本进程中的预留库存，锁只在补货时使用，按商品分段
+     */
+    private static class StockLease {
+        private final AtomicInteger available = new AtomicInteger();
+        private final ReentrantLock refillLock = new ReentrantLock();
+
+        boolean tryTake(int quantity) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+
+        void give(int quantity) {
+            available.addAndGet(quantity);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // 预留在独立事务中提交，不随某个订单回滚，否则内存中的库存会多于数据库实际扣减
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        rejected = Counter.builder("stock.reservation.rejected")
+            .description("Orders rejected because of insufficient stock")
+            .register(meterRegistry);
+        leaseRefills = Counter.builder("stock.lease.refills")
+            .description("Stock leases taken from the database for hot products")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 为一批订单扣减库存，需在订单事务中调用；库存不足时抛出 OUT_OF_STOCK，已扣减的部分随事务回滚
+     */
+    public void reserve(List<Order> orders) {
+        // 同一商品的数量先合并，按 id 排序保证加锁顺序一致
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<Long> dbProductIds = new ArrayList<>();
+        List<Integer> dbQuantities = new ArrayList<>();
+        Map<Long, Integer> leased = new TreeMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                Long productId = entry.getKey();
+                int quantity = entry.getValue();
+                if (quantity <= 0) {
+                    throw new BusinessException(ErrorCode.PARAM_ERROR, "商品数量必须大于0: " + productId);
+                }
+                if (!hotProducts.contains(productId)) {
+                    dbProductIds.add(productId);
+                    dbQuantities.add(quantity);
+                } else if (takeFromLease(productId, quantity)) {
+                    leased.put(productId, quantity);
+                } else {
+                    throw outOfStock(productId);
+                }
+            }
+
+            if (!dbProductIds.isEmpty()) {
+                int updated = productRepository.decrementStock(
+                    dbProductIds.toArray(new Long[0]), dbQuantities.toArray(new Integer[0]));
+                if (updated < dbProductIds.size()) {
+                    throw outOfStock(null);
+                }
+            }
+        } catch (RuntimeException e) {
+            release(leased);
+            throw e;
+        }
+
+        if (!leased.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 订单事务回滚时把内存预留还回去
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(leased);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 补货：在数据库库存上累加，与其他节点持有的热点商品预留互不影响
+     */
+    public void restock(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new BusinessException(ErrorCode.PARAM_ERROR, "补货数量必须大于0");
+        }
+        if (productRepository.returnStock(productId, quantity) == 0) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在: " + productId);
+        }
+    }
+
+    private boolean takeFromLease(Long productId, int quantity) {
+        StockLease lease = leases.computeIfAbsent(productId, id -> new StockLease());
+        if (lease.tryTake(quantity)) {
+            return true;
+        }
+        lease.refillLock.lock();
+        try {
+            // 等锁期间可能已有其他线程补过货
+            if (lease.tryTake(quantity)) {
+                return true;
+            }
+            int request = Math.max(leaseSize, quantity);
+            Integer granted = leaseTransaction.execute(status -> productRepository.leaseStock(productId, request));
+            if (granted == null) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "商品不存在: " + productId);
+            }
+            if (granted > 0) {
+                leaseRefills.increment();
+                lease.give(granted);
+            }
+            return lease.tryTake(quantity);
+        } finally {
+            lease.refillLock.unlock();
+        }
+    }
+
+    private void release(Map<Long, Integer> leased) {
+        leased.forEach((productId, quantity) -> leases.get(productId).give(quantity));
+    }
+
+    private BusinessException outOfStock(Long productId) {
+        rejected.increment();
+        return new BusinessException(ErrorCode.OUT_OF_STOCK,
+            productId == null ? "库存不足" : "库存不足: " + productId);
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        leases.forEach((productId, lease) -> {
+            int remaining = lease.available.getAndSet(0);
+            if (remaining > 0) {
+                try {
+                    leaseTransaction.executeWithoutResult(status -> productRepository.returnStock(productId, remaining));
+                } catch (Exception e) {
+                    log.error("归还商品 {} 的预留库存 {} 件失败", productId, remaining, e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.star.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.star.demo.cache.BloomFilter;
+import com.star.demo.cache.CacheInvalidationBus;
+import com.star.demo.model.RevokedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 注销 token (按 jti) 的吊销检查。吊销记录保存在 revoked_tokens 表，每个节点在内存中维护一个布隆过滤器：
+ * 绝大多数请求的 token 未被吊销，过滤器判断不存在即可放行，不访问数据库；过滤器命中时再查表确认，结果短暂缓存。
+ * 其他节点的注销通过 cache_invalidation 通道送达 (见 V3.4 迁移)。
+ * 布隆过滤器不能删除元素，定期删除已过期的记录并按剩余记录重建。
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    @Resource
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.rebuild-interval:1h}")
+    private Duration rebuildInterval;
+
+    /**
+     * 过滤器命中后查表的结果，吊销时清除对应的 jti
+     */
+    private final Cache<String, Boolean> confirmed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+    // 只在持有本对象锁时替换或写入，读取无需加锁
+    private volatile BloomFilter filter;
+    // 重建期间 remember 的 jti，切换到新过滤器时补写，同样由本对象锁保护
+    private Set<String> rememberedDuringRebuild;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Counter filterPassed;
+    private Counter databaseChecks;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        filterPassed = Counter.builder("jwt.revocation.checks")
+                .tag("result", "filtered")
+                .description("Token revocation checks answered by the in-memory Bloom filter")
+                .register(meterRegistry);
+        databaseChecks = Counter.builder("jwt.revocation.checks")
+                .tag("result", "confirmed")
+                .description("Token revocation checks that had to be confirmed against the database")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe("revoked_tokens", event -> {
+            RevokedToken revoked = revokedTokenRepository.getById(event.id());
+            if (revoked != null) {
+                remember(revoked.getJti());
+            }
+        });
+        cacheInvalidationBus.onReset(this::rebuild);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = rebuildInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 注销 token，记录保留到 token 过期
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.revoke(jti, expiresAt);
+        remember(jti);
+    }
+
+    /**
+     * 没有 jti 的旧 token 无法吊销，视为有效
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            filterPassed.increment();
+            return false;
+        }
+        try {
+            // 查表放在 loader 中，与 remember 的 invalidate 互斥，不会缓存到吊销前的旧结果；
+            // loader 抛出的异常不会写入缓存
+            return confirmed.get(jti, key -> {
+                databaseChecks.increment();
+                return revokedTokenRepository.isRevoked(key);
+            });
+        } catch (Exception e) {
+            // 布隆过滤器已命中，查表失败时本次按已吊销处理，不缓存
+            log.warn("查询 token 吊销记录失败: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 只短暂持有对象锁，不会被重建时的数据库读取阻塞 (失效监听线程和注销请求都会调用)
+     */
+    private synchronized void remember(String jti) {
+        filter.put(jti);
+        if (rememberedDuringRebuild != null) {
+            rememberedDuringRebuild.add(jti);
+        }
+        confirmed.invalidate(jti);
+    }
+
+    /**
+     * 删除过期记录，用剩余记录重建布隆过滤器。读取数据库时不持有对象锁，
+     * 重建开始后 remember 的 jti 可能不在读取的快照中，切换前补写进新过滤器
+     */
+    void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                rememberedDuringRebuild = new HashSet<>();
+            }
+            revokedTokenRepository.removeExpired();
+            BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+            revokedTokenRepository.listJtis().forEach(next::put);
+            synchronized (this) {
+                rememberedDuringRebuild.forEach(next::put);
+                filter = next;
+            }
+            confirmed.invalidateAll();
+        } catch (Exception e) {
+            log.warn("重建 token 吊销过滤器失败，继续使用旧过滤器: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                rememberedDuringRebuild = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.star.demo.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.star.demo.annotation.ReplicaRead;
+import com.star.demo.cache.CacheInvalidationBus;
+import com.star.demo.cache.UserCache;
 import com.star.demo.exception.InvalidPasswordException;
 import com.star.demo.exception.UserNotFoundException;
 import com.star.demo.model.User;
+import com.star.demo.security.AuthenticatedUser;
 import com.star.demo.security.JwtUtil;
+import com.star.demo.security.PasswordHasher;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Service;
 import jakarta.annotation.Resource;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -22,31 +29,53 @@ public class UserService {
     @Resource
     private JwtUtil jwtUtil;
 
+    @Resource
+    private PasswordHasher passwordHasher;
+
+    @Resource
+    private UserCache userCache;
+
+    @Resource
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * 其他节点修改用户后清除本地缓存
+     */
+    @PostConstruct
+    public void subscribeInvalidation() {
+        cacheInvalidationBus.subscribe("users", event -> userCache.invalidate(event.id()));
+        cacheInvalidationBus.onReset(userCache::invalidateAll);
+    }
 
     public User getUserByEmailAndPassword(String email, String password) {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        // 使用加密后的密码进行查询
-        return userRepository.query().eq("email", email).eq("password", password).oneOpt().orElseThrow(() -> new UserNotFoundException("用户不存在或密码错误"));
+        User user = userRepository.query().eq("email", email).oneOpt().orElseThrow(() -> new UserNotFoundException("用户不存在或密码错误"));
+        // BCrypt 校验在独立线程池中执行
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            throw new UserNotFoundException("用户不存在或密码错误");
+        }
+        return user;
     }
 
     public User getUserByEmail(String email) {
-        return userRepository.query().eq("email", email).oneOpt().orElseThrow(() -> new UserNotFoundException("用户不存在"));
+        return userCache.getByEmail(email, key -> userRepository.query().eq("email", key).oneOpt())
+            .orElseThrow(() -> new UserNotFoundException("用户不存在"));
     }
 
     public String generateToken(String email, Long id, String role) {
         return jwtUtil.generateToken(email, id, role);
     }
 
-    public String extractEmail(String token) {
-        return jwtUtil.extractEmail(token);
+    public String renewToken(AuthenticatedUser current, User user) {
+        return jwtUtil.renewToken(current, user.getEmail(), user.getId(), user.getRole().toString());
     }
 
+    @ReplicaRead
     public List<User> getAllUsers() {
         return userRepository.list();
     }
 
     public User getUserById(Long id) {
-        return userRepository.getById(id);
+        return userCache.getById(id, key -> Optional.ofNullable(userRepository.getById(key))).orElse(null);
     }
 
     public boolean saveUser(User user) {
@@ -54,16 +83,27 @@ public class UserService {
         if (userRepository.query().eq("email", user.getEmail()).oneOpt().isPresent()) {
             throw new InvalidPasswordException("A user with this email already exists");
         }
-        return userRepository.save(user);
+        user.setPassword(passwordHasher.encode(user.getPassword()));
+        boolean success = userRepository.save(user);
+        // 清除该 ID 和邮箱的未命中缓存
+        userCache.invalidate(user.getId());
+        return success;
     }
 
     public boolean updateUser(User user, Long userId) {
+        if (user.getPassword() != null) {
+            user.setPassword(passwordHasher.encode(user.getPassword()));
+        }
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        return userRepository.update(user, queryWrapper.eq("id", userId));
+        boolean success = userRepository.update(user, queryWrapper.eq("id", userId));
+        userCache.invalidate(userId);
+        return success;
     }
 
     public boolean deleteUserById(Long userId) {
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        return userRepository.remove(queryWrapper.eq("id", userId));
+        boolean success = userRepository.remove(queryWrapper.eq("id", userId));
+        userCache.invalidate(userId);
+        return success;
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.star.demo.trace;
+
+/**
+ * 单个请求的分阶段耗时，只在处理请求的线程内读写
+ */
+public class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String uri;
+    private final long startNanos;
+    private long handlerStartNanos;
+    private long serializationStartNanos;
+    private long serviceNanos;
+    private long serviceStartNanos;
+    private int serviceDepth;
+    private long dbNanos;
+    private long dbNanosInService;
+    private int dbStatements;
+
+    private RequestTrace(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+        this.startNanos = System.nanoTime();
+    }
+
+    public static RequestTrace start(String method, String uri) {
+        RequestTrace trace = new RequestTrace(method, uri);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 当前线程没有在处理请求时返回 null
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public void markHandlerStart() {
+        handlerStartNanos = System.nanoTime();
+    }
+
+    public void markSerializationStart() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    public void enterService() {
+        if (serviceDepth++ == 0) {
+            serviceStartNanos = System.nanoTime();
+        }
+    }
+
+    public void exitService() {
+        if (--serviceDepth == 0) {
+            serviceNanos += System.nanoTime() - serviceStartNanos;
+        }
+    }
+
+    /**
+     * 流式读取的语句只计数不计时：其耗时主要是逐行处理和写出响应，计入 db 会掩盖真正的瓶颈
+     */
+    public void addStreamedStatement() {
+        dbStatements++;
+    }
+
+    public void addDbTime(long nanos) {
+        dbNanos += nanos;
+        dbStatements++;
+        if (serviceDepth > 0) {
+            dbNanosInService += nanos;
+        }
+    }
+
+    /**
+     * 结束计时并把各阶段耗时拆分为互不重叠的区间
+     */
+    public RequestTraceRecord finish(int status) {
+        long endNanos = System.nanoTime();
+        long handlerStart = handlerStartNanos == 0 ? endNanos : handlerStartNanos;
+        long serializationStart = serializationStartNanos == 0 ? endNanos : serializationStartNanos;
+        long handlerWindow = Math.max(serializationStart - handlerStart, 0);
+        long dbOutsideService = dbNanos - dbNanosInService;
+        return RequestTraceRecord.builder()
+            .method(method)
+            .uri(uri)
+            .status(status)
+            .timestamp(System.currentTimeMillis())
+            .totalMicros(micros(endNanos - startNanos))
+            .webMicros(micros(handlerStart - startNanos))
+            .controllerMicros(micros(Math.max(handlerWindow - serviceNanos - dbOutsideService, 0)))
+            .serviceMicros(micros(Math.max(serviceNanos - dbNanosInService, 0)))
+            .dbMicros(micros(dbNanos))
+            .dbStatements(dbStatements)
+            .serializationMicros(micros(endNanos - serializationStart))
+            .build();
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+}
@@ -0,0 +1,43 @@
+package com.star.demo.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 最近请求耗时的无锁环形缓冲区，写满后覆盖最旧的记录
+ */
+@Component
+public class RequestTraceBuffer {
+
+    private final AtomicReferenceArray<RequestTraceRecord> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public RequestTraceBuffer(@Value("${trace.buffer-size:1024}") int bufferSize) {
+        this.slots = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    public void add(RequestTraceRecord record) {
+        long index = cursor.getAndIncrement();
+        slots.set((int) (index % slots.length()), record);
+    }
+
+    public long totalRecorded() {
+        return cursor.get();
+    }
+
+    public List<RequestTraceRecord> snapshot() {
+        List<RequestTraceRecord> records = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTraceRecord record = slots.get(i);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
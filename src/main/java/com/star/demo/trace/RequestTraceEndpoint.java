@@ -0,0 +1,53 @@
+package com.star.demo.trace;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * /actuator/requesttraces：最近请求中最慢的若干条及其各阶段耗时，以及各阶段平均耗时
+ */
+@Component
+@Endpoint(id = "requesttraces")
+public class RequestTraceEndpoint {
+
+    private final RequestTraceBuffer traceBuffer;
+
+    public RequestTraceEndpoint(RequestTraceBuffer traceBuffer) {
+        this.traceBuffer = traceBuffer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces(@Nullable Integer limit) {
+        List<RequestTraceRecord> records = traceBuffer.snapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalRecorded", traceBuffer.totalRecorded());
+        result.put("sampleSize", records.size());
+
+        Map<String, Double> averageMicros = new LinkedHashMap<>();
+        averageMicros.put("total", average(records, RequestTraceRecord::getTotalMicros));
+        averageMicros.put("web", average(records, RequestTraceRecord::getWebMicros));
+        averageMicros.put("controller", average(records, RequestTraceRecord::getControllerMicros));
+        averageMicros.put("service", average(records, RequestTraceRecord::getServiceMicros));
+        averageMicros.put("db", average(records, RequestTraceRecord::getDbMicros));
+        averageMicros.put("serialization", average(records, RequestTraceRecord::getSerializationMicros));
+        result.put("averageMicros", averageMicros);
+
+        result.put("slowest", records.stream()
+            .sorted(Comparator.comparingLong(RequestTraceRecord::getTotalMicros).reversed())
+            .limit(limit == null ? 20 : limit)
+            .toList());
+        return result;
+    }
+
+    private double average(List<RequestTraceRecord> records, ToLongFunction<RequestTraceRecord> getter) {
+        return records.stream().mapToLong(getter).average().orElse(0);
+    }
+}
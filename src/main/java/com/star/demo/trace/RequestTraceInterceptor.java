@@ -0,0 +1,22 @@
+package com.star.demo.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 注册在所有拦截器之后，标记控制器方法开始执行的时间
+ */
+@Component
+public class RequestTraceInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.markHandlerStart();
+        }
+        return true;
+    }
+}
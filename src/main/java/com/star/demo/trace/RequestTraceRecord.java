@@ -0,0 +1,24 @@
+package com.star.demo.trace;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class RequestTraceRecord {
+    private String method;
+    private String uri;
+    private int status;
+    private long timestamp;
+    private long totalMicros;
+    // 过滤器和拦截器 (含 JWT 解析、权限校验)
+    private long webMicros;
+    private long controllerMicros;
+    // 不含其中的 SQL 时间
+    private long serviceMicros;
+    private long dbMicros;
+    private int dbStatements;
+    private long serializationMicros;
+}
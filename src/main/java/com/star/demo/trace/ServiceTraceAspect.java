@@ -0,0 +1,28 @@
+package com.star.demo.trace;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 统计请求在 @Service 方法中的时间，嵌套调用只计最外层
+ */
+@Aspect
+@Component
+public class ServiceTraceAspect {
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+        trace.enterService();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            trace.exitService();
+        }
+    }
+}
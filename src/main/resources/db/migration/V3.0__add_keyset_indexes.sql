@@ -0,0 +1,7 @@
+-- postgresql
+-- 游标分页按 id 定位：products / orders 全表列表直接使用主键索引
+-- 当前用户订单按 (user_id, id) 定位
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_id ON orders (user_id, id DESC);
+
+-- 订单明细按 order_id 批量加载
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
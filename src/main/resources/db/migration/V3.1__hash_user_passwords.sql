@@ -0,0 +1,7 @@
+-- postgresql
+-- 将已有的明文密码转换为 BCrypt 哈希 (pgcrypto 的 bf 算法输出 $2a$ 格式，与 BCryptPasswordEncoder 兼容)
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+UPDATE users
+SET password = crypt(password, gen_salt('bf', 10))
+WHERE password NOT LIKE '$2_$%';
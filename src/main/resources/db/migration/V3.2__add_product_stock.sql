@@ -0,0 +1,11 @@
+-- postgresql
+-- 商品库存：下单时使用条件更新 (stock >= 数量) 原子扣减，CHECK 约束兜底防止超卖
+ALTER TABLE products
+    ADD COLUMN stock INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE products
+    ADD CONSTRAINT products_stock_non_negative CHECK (stock >= 0);
+
+-- 已有商品给一个初始库存，避免升级后无法下单
+UPDATE products
+SET stock = 1000;
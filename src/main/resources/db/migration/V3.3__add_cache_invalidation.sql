@@ -0,0 +1,56 @@
+-- postgresql
+-- 跨节点缓存失效：products / users 的业务字段变更时由触发器递增行版本并 NOTIFY cache_invalidation，
+-- 各节点监听该通道清除本地缓存。版本号来自全局序列，单调递增，节点据此丢弃过期或重复的消息。
+-- 触发器只监听业务字段 (UPDATE OF ...)，库存扣减不会产生通知；新增业务字段时需同步修改这里的字段列表。
+CREATE SEQUENCE IF NOT EXISTS cache_version_seq;
+
+ALTER TABLE products
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION bump_row_version() RETURNS trigger AS
+$$
+BEGIN
+    NEW.version := nextval('cache_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 消息格式: 表名:id:版本，随事务提交才会送达
+CREATE OR REPLACE FUNCTION notify_cache_invalidation() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('cache_invalidation', TG_TABLE_NAME || ':' || OLD.id || ':' || nextval('cache_version_seq'));
+    ELSE
+        PERFORM pg_notify('cache_invalidation', TG_TABLE_NAME || ':' || NEW.id || ':' || NEW.version);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_bump_version
+    BEFORE INSERT OR UPDATE OF name, image_url, price, description, uploader_id, upload_time, event_id, tags
+    ON products
+    FOR EACH ROW
+EXECUTE FUNCTION bump_row_version();
+
+CREATE TRIGGER products_notify_cache
+    AFTER INSERT OR DELETE OR UPDATE OF name, image_url, price, description, uploader_id, upload_time, event_id, tags
+    ON products
+    FOR EACH ROW
+EXECUTE FUNCTION notify_cache_invalidation();
+
+CREATE TRIGGER users_bump_version
+    BEFORE INSERT OR UPDATE OF email, password, role
+    ON users
+    FOR EACH ROW
+EXECUTE FUNCTION bump_row_version();
+
+CREATE TRIGGER users_notify_cache
+    AFTER INSERT OR DELETE OR UPDATE OF email, password, role
+    ON users
+    FOR EACH ROW
+EXECUTE FUNCTION notify_cache_invalidation();
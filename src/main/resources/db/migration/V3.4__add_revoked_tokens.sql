@@ -0,0 +1,25 @@
+-- postgresql
+-- 注销的 token (按 jti)，过期后由 TokenRevocationService 定期删除。
+-- 新增时通过 cache_invalidation 通道通知其他节点 (消息格式同 V3.3，版本即自增 id)，各节点据此更新本地布隆过滤器。
+CREATE TABLE revoked_tokens
+(
+    id         BIGSERIAL PRIMARY KEY,
+    jti        VARCHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+CREATE OR REPLACE FUNCTION notify_token_revoked() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('cache_invalidation', TG_TABLE_NAME || ':' || NEW.id || ':' || NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER revoked_tokens_notify
+    AFTER INSERT
+    ON revoked_tokens
+    FOR EACH ROW
+EXECUTE FUNCTION notify_token_revoked();
@@ -0,0 +1,56 @@
+package com.star.demo.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheInvalidationBusTest {
+
+    private CacheInvalidationBus bus;
+    private final List<CacheInvalidationEvent> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bus = new CacheInvalidationBus();
+        // enabled 默认为 false，不会启动监听线程
+        ReflectionTestUtils.setField(bus, "meterRegistry", new SimpleMeterRegistry());
+        bus.start();
+        bus.subscribe("products", products::add);
+    }
+
+    @Test
+    void dispatch_ShouldDeliverToTableSubscribers() {
+        bus.dispatch("products:1:10");
+        bus.dispatch("users:1:11");
+
+        assertEquals(List.of(new CacheInvalidationEvent("products", 1L, 10)), products);
+    }
+
+    @Test
+    void dispatch_ShouldDropDuplicateAndLateVersions() {
+        bus.dispatch("products:1:10");
+        bus.dispatch("products:1:10");
+        bus.dispatch("products:1:9");
+        bus.dispatch("products:2:9");
+        bus.dispatch("products:1:12");
+
+        assertEquals(List.of(
+            new CacheInvalidationEvent("products", 1L, 10),
+            new CacheInvalidationEvent("products", 2L, 9),
+            new CacheInvalidationEvent("products", 1L, 12)), products);
+    }
+
+    @Test
+    void dispatch_ShouldIgnoreMalformedPayload() {
+        bus.dispatch("products:abc:1");
+        bus.dispatch("garbage");
+
+        assertEquals(0, products.size());
+    }
+}
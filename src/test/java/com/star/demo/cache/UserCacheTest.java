@@ -0,0 +1,65 @@
+package com.star.demo.cache;
+
+import com.star.demo.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private UserCache cache;
+    private final Map<String, User> users = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        users.put("a@example.com", User.builder().id(1L).email("a@example.com").build());
+    }
+
+    @Test
+    void getByEmail_ShouldLoadOnce() {
+        assertEquals(1L, lookup("a@example.com").orElseThrow().getId());
+        assertEquals(1L, lookup("a@example.com").orElseThrow().getId());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getByEmail_ShouldCacheMisses() {
+        assertTrue(lookup("missing@example.com").isEmpty());
+        assertTrue(lookup("missing@example.com").isEmpty());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldEvictUserAndMisses() {
+        lookup("a@example.com");
+        lookup("b@example.com");
+        users.put("a@example.com", User.builder().id(1L).email("a@example.com").role(User.Role.ADMIN).build());
+        users.put("b@example.com", User.builder().id(2L).email("b@example.com").build());
+
+        cache.invalidate(2L);
+        assertEquals(2L, lookup("b@example.com").orElseThrow().getId());
+        assertEquals(User.Role.USER, lookup("a@example.com").orElseThrow().getRole());
+
+        cache.invalidate(1L);
+        assertEquals(User.Role.ADMIN, lookup("a@example.com").orElseThrow().getRole());
+    }
+
+    private Optional<User> lookup(String email) {
+        return cache.getByEmail(email, key -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(users.get(key));
+        });
+    }
+}
@@ -2,9 +2,12 @@ package com.star.demo.controller;
 
 import com.star.demo.common.ApiResponse;
 import com.star.demo.dto.request.CreateOrderRequest;
+import com.star.demo.dto.response.CursorPage;
 import com.star.demo.model.Order;
+import com.star.demo.service.IdempotencyService;
+import com.star.demo.service.OrderIngestionService;
 import com.star.demo.service.OrderService;
-import com.star.demo.security.JwtUtil;
+import com.star.demo.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -24,7 +27,10 @@ class OrderControllerTest {
     private OrderService orderService;
 
     @Mock
-    private JwtUtil jwtUtil;
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private OrderIngestionService orderIngestionService;
 
     @InjectMocks
     private OrderController orderController;
@@ -32,7 +38,11 @@ class OrderControllerTest {
     private Order testOrder;
     private CreateOrderRequest createOrderRequest;
 
-    private static final String TEST_TOKEN = "Bearer test-token";
+    private static final AuthenticatedUser TEST_USER = AuthenticatedUser.builder()
+        .userId(100L)
+        .email("test@example.com")
+        .role("USER")
+        .build();
 
     @BeforeEach
     void setUp() {
@@ -54,9 +64,8 @@ class OrderControllerTest {
     void createOrder_ShouldReturnCreatedOrder() {
         // 准备
         when(orderService.createOrder(any(Order.class))).thenReturn(testOrder);
-        when(jwtUtil.extractUserId(anyString())).thenReturn(100L);
         
-        ApiResponse<Order> response = orderController.createOrder(createOrderRequest, TEST_TOKEN);
+        ApiResponse<Order> response = orderController.createOrder(createOrderRequest, TEST_USER, null);
         
         // 验证
         assertNotNull(response);
@@ -66,9 +75,8 @@ class OrderControllerTest {
     @Test
     void getOrder_ShouldReturnOrder() {
         when(orderService.getOrderById(1L)).thenReturn(testOrder);
-        when(jwtUtil.extractUserId(anyString())).thenReturn(100L);
 
-        ApiResponse<Order> response = orderController.getOrder(1L, TEST_TOKEN);
+        ApiResponse<Order> response = orderController.getOrder(1L, TEST_USER);
         
         assertNotNull(response);
     }
@@ -77,29 +85,39 @@ class OrderControllerTest {
     void getAllOrders_ShouldReturnOrderList() {
         // 准备
         List<Order> orderList = Arrays.asList(testOrder);
-        when(orderService.getAllOrders()).thenReturn(orderList);
+        when(orderService.getAllOrders(1, 10)).thenReturn(orderList);
 
         // 执行
-        ApiResponse<List<Order>> response = orderController.getAllOrders();
+        ApiResponse<List<Order>> response = orderController.getAllOrders(1, 10);
 
         // 验证
         assertNotNull(response);
         assertEquals(orderList, response.getData());
         assertEquals(1, response.getData().size());
-        verify(orderService, times(1)).getAllOrders();
+        verify(orderService, times(1)).getAllOrders(1, 10);
     }
 
     @Test
     void getCurrentUserOrders_ShouldReturnUserOrderList() {
         List<Order> userOrders = Arrays.asList(testOrder);
         when(orderService.getUserOrders(100L)).thenReturn(userOrders);
-        when(jwtUtil.extractUserId(anyString())).thenReturn(100L);
 
-        ApiResponse<List<Order>> response = orderController.getCurrentUserOrders(TEST_TOKEN);
+        ApiResponse<List<Order>> response = orderController.getCurrentUserOrders(TEST_USER);
         
         assertNotNull(response);
     }
 
+    @Test
+    void getCurrentUserOrdersByCursor_ShouldQueryCurrentUser() {
+        CursorPage<Order> page = CursorPage.of(List.of(testOrder), 10, Order::getId);
+        when(orderService.getUserOrdersBefore(100L, null, 10)).thenReturn(page);
+
+        ApiResponse<CursorPage<Order>> response = orderController.getCurrentUserOrdersByCursor(TEST_USER, null, 10);
+
+        assertEquals(page, response.getData());
+        verify(orderService, times(1)).getUserOrdersBefore(100L, null, 10);
+    }
+
     @Test
     void updateOrder_ShouldReturnUpdatedOrder() {
         // 准备
@@ -0,0 +1,78 @@
+package com.star.demo.database;
+
+import com.star.demo.service.OrderService;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 统计 SQL 语句条数，防止订单列表重新退化为 N+1 查询
+ */
+@SpringBootTest
+public class OrderQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter.reset();
+    }
+
+    @Test
+    public void getUserOrders_ShouldIssueTwoStatements() {
+        orderService.getUserOrders(1L);
+        // orders 一次 + order_items 一次，与订单数量无关
+        assertEquals(2, statementCounter.get());
+    }
+
+    @Test
+    public void getAllOrders_ShouldIssueThreeStatements() {
+        orderService.getAllOrders(1, 100);
+        // COUNT 一次 + 分页查询一次 + order_items 一次
+        assertEquals(3, statementCounter.get());
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+        @Bean
+        public StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+    }
+
+    @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+    static class StatementCounter implements Interceptor {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            count.incrementAndGet();
+            return invocation.proceed();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+
+        int get() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.star.demo.database;
+
+import com.star.demo.common.ErrorCode;
+import com.star.demo.exception.BusinessException;
+import com.star.demo.model.Order;
+import com.star.demo.model.OrderItem;
+import com.star.demo.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多线程同时抢购同一个商品，验证不会超卖，并输出下单吞吐量。
+ * 商品 1 走进程内预留 (热点商品)，商品 2 直接走数据库条件扣减。
+ */
+@SpringBootTest(properties = {"stock.hot-products=1", "stock.lease-size=20"})
+public class StockConcurrencyTest {
+
+    private static final int STOCK = 100;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Queue<Long> createdOrderIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE id IN (1, 2)", STOCK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long orderId : createdOrderIds) {
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?", orderId);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+        }
+        jdbcTemplate.update("UPDATE products SET stock = 1000 WHERE id IN (1, 2)");
+    }
+
+    @Test
+    public void hotProduct_ShouldNotOversell() throws InterruptedException {
+        assertEquals(STOCK, hammer(1L));
+        assertEquals(0, stockOf(1L));
+    }
+
+    @Test
+    public void regularProduct_ShouldNotOversell() throws InterruptedException {
+        assertEquals(STOCK, hammer(2L));
+        assertEquals(0, stockOf(2L));
+    }
+
+    private int hammer(Long productId) throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        Order order = orderService.createOrder(newOrder(productId));
+                        createdOrderIds.add(order.getId());
+                        succeeded.incrementAndGet();
+                    } catch (BusinessException e) {
+                        if (e.getErrorCode() != ErrorCode.OUT_OF_STOCK) {
+                            synchronized (unexpected) {
+                                unexpected.add(e);
+                            }
+                        }
+                        outOfStock.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected errors: " + unexpected);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, succeeded.get() + outOfStock.get());
+        return succeeded.get();
+    }
+
+    private Order newOrder(Long productId) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setAddress("test address");
+        order.setPhone("13800000000");
+        order.setItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
+
+    private int stockOf(Long productId) {
+        Integer stock = jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+        return stock == null ? -1 : stock;
+    }
+}
@@ -0,0 +1,71 @@
+package com.star.demo.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaHealthChecker healthChecker;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        healthChecker = mock(ReplicaHealthChecker.class);
+        when(healthChecker.pickReplica()).thenReturn("replica-1");
+        routing = new ReplicaRoutingDataSource(healthChecker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void plainStatement_ShouldUsePrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void replicaRead_ShouldUseReplica() {
+        ReplicaRoutingContext.enterRead();
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        ReplicaRoutingContext.exitRead();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimaryEvenInsideReplicaRead() {
+        ReplicaRoutingContext.enterRead();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readAfterWrite_ShouldUsePrimary() {
+        ReplicaRoutingContext.markWritten();
+        ReplicaRoutingContext.enterRead();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void noHealthyReplica_ShouldFallBackToPrimary() {
+        when(healthChecker.pickReplica()).thenReturn(null);
+        ReplicaRoutingContext.enterRead();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+}
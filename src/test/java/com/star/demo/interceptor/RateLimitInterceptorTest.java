@@ -0,0 +1,181 @@
+package com.star.demo.interceptor;
+
+import com.star.demo.annotation.RateLimit;
+import com.star.demo.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tokenBucket_ShouldAllowBurstUpToCapacity() {
+        RateLimitInterceptor.TokenBucket bucket = new RateLimitInterceptor.TokenBucket(5, 1);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        // 第 6 个请求需等待约 1 秒
+        long wait = bucket.tryAcquire(now);
+        assertTrue(wait > 0 && wait <= SECOND);
+    }
+
+    @Test
+    void tokenBucket_ShouldRefillOverTime() {
+        RateLimitInterceptor.TokenBucket bucket = new RateLimitInterceptor.TokenBucket(2, 2);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+        // 每秒补充 2 个令牌，0.5 秒后可再取 1 个
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertTrue(bucket.tryAcquire(now + SECOND / 2) > 0);
+    }
+
+    @Test
+    void tokenBucket_ShouldNotOverGrantUnderContention() throws InterruptedException {
+        RateLimitInterceptor.TokenBucket bucket = new RateLimitInterceptor.TokenBucket(100, 0.001);
+        long now = 1_000 * SECOND;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void tokenBucket_ShouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor.TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor.TokenBucket(5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor.TokenBucket(5, -1));
+    }
+
+    @Test
+    void preHandle_ShouldReturn429WithRetryAfter() throws Exception {
+        RateLimitInterceptor interceptor = newInterceptor();
+        HandlerMethod handler = handler(new LimitedController(), "byIp");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("10.0.0.1", null), response, handler));
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void preHandle_ShouldRoundRetryAfterUp() throws Exception {
+        RateLimitInterceptor interceptor = newInterceptor();
+        HandlerMethod handler = handler(new LimitedController(), "slowRefill");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("10.0.0.1", null), response, handler));
+
+        // 每秒补充 0.5 个令牌，需等待接近 2 秒
+        assertEquals("2", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void preHandle_ShouldKeepSeparateBucketsPerIp() throws Exception {
+        RateLimitInterceptor interceptor = newInterceptor();
+        HandlerMethod handler = handler(new LimitedController(), "byIp");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+
+        assertTrue(interceptor.preHandle(request("10.0.0.2", null), new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    void preHandle_ShouldKeepSeparateBucketsPerUser() throws Exception {
+        RateLimitInterceptor interceptor = newInterceptor();
+        HandlerMethod handler = handler(new LimitedController(), "byUser");
+
+        // 同一 IP 下的不同用户互不影响
+        assertTrue(interceptor.preHandle(request("10.0.0.1", 1L), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1", 1L), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request("10.0.0.1", 2L), new MockHttpServletResponse(), handler));
+        // 未登录时按 IP 计数
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    void preHandle_ShouldApplyClassLevelAnnotation() throws Exception {
+        RateLimitInterceptor interceptor = newInterceptor();
+        HandlerMethod handler = handler(new ClassLimitedController(), "list");
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(request("10.0.0.1", null), new MockHttpServletResponse(), handler));
+    }
+
+    private static RateLimitInterceptor newInterceptor() {
+        return new RateLimitInterceptor(new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(10));
+    }
+
+    private static HandlerMethod handler(Object controller, String method) throws NoSuchMethodException {
+        return new HandlerMethod(controller, controller.getClass().getDeclaredMethod(method));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (userId != null) {
+            request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE,
+                AuthenticatedUser.builder().userId(userId).email(userId + "@example.com").role("USER").build());
+        }
+        return request;
+    }
+
+    static class LimitedController {
+        @RateLimit(name = "ip-test", key = RateLimit.KeyType.IP, capacity = 2, refillPerSecond = 1)
+        public void byIp() {
+        }
+
+        @RateLimit(name = "slow-test", key = RateLimit.KeyType.IP, capacity = 1, refillPerSecond = 0.5)
+        public void slowRefill() {
+        }
+
+        @RateLimit(name = "user-test", key = RateLimit.KeyType.USER, capacity = 1, refillPerSecond = 0.001)
+        public void byUser() {
+        }
+    }
+
+    @RateLimit(name = "class-test", capacity = 1, refillPerSecond = 0.001)
+    static class ClassLimitedController {
+        public void list() {
+        }
+    }
+}
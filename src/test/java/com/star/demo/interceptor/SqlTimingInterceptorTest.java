@@ -0,0 +1,76 @@
+package com.star.demo.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SqlTimingInterceptorTest {
+
+    private final SqlTimingInterceptor interceptor =
+        new SqlTimingInterceptor(new SimpleMeterRegistry(), Duration.ofMillis(200), true);
+
+    private final StatementHandler statementHandler = mock(StatementHandler.class);
+    private final Statement statement = mock(Statement.class);
+    private final Connection connection = mock(Connection.class);
+    private final Savepoint savepoint = mock(Savepoint.class);
+    private final BoundSql boundSql = mock(BoundSql.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(boundSql.getSql()).thenReturn("SELECT * FROM orders WHERE user_id = ?");
+    }
+
+    @Test
+    void explain_ShouldRollbackToSavepointWhenFailingInsideTransaction() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("permission denied"));
+
+        String plan = interceptor.explain(statementHandler, statement, boundSql);
+
+        assertEquals("EXPLAIN 失败: permission denied", plan);
+        verify(connection).rollback(savepoint);
+        verify(connection).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    void explain_ShouldReleaseSavepointAfterSuccess() throws SQLException {
+        PreparedStatement explainStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.prepareStatement("EXPLAIN SELECT * FROM orders WHERE user_id = ?")).thenReturn(explainStatement);
+        when(explainStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("Index Scan using idx_orders_user_id_id on orders");
+
+        String plan = interceptor.explain(statementHandler, statement, boundSql);
+
+        assertEquals("Index Scan using idx_orders_user_id_id on orders", plan);
+        verify(statementHandler).parameterize(explainStatement);
+        verify(connection, never()).rollback(any(Savepoint.class));
+        verify(connection).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    void explain_ShouldNotUseSavepointInAutoCommitMode() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("syntax error"));
+
+        assertEquals("EXPLAIN 失败: syntax error", interceptor.explain(statementHandler, statement, boundSql));
+        verify(connection, never()).setSavepoint();
+    }
+}
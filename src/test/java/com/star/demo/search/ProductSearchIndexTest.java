@@ -0,0 +1,74 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.add(product(1L, "香蕉水果蛋糕", "香蕉风味的水果蛋糕，好吃带回家～", "tag1,tag2"));
+        index.add(product(2L, "草莓水果蛋糕", "草莓风味的水果蛋糕，好吃带回家～", "tag1,tag2"));
+        index.add(product(4L, "法式烤面包", "美味的法式烤面包，香脆可口～", "tag3,tag4"));
+        index.add(product(5L, "巧克力蛋糕", "浓郁的巧克力蛋糕，甜蜜享受～", "tag1,tag5"));
+    }
+
+    @Test
+    void tokenize_ShouldSplitCjkIntoBigramsAndKeepLatinWords() {
+        assertEquals(List.of("水果", "果蛋", "蛋糕", "iphone", "15", "pro"),
+            ProductTokenizer.tokenize("水果蛋糕，iPhone １５-Pro"));
+        assertEquals(List.of("糕"), ProductTokenizer.tokenize("糕"));
+    }
+
+    @Test
+    void search_ShouldRequireAllTermsWhenPossible() {
+        ProductSearchIndex.Result result = index.search("草莓蛋糕", 10);
+
+        assertEquals(1, result.total());
+        assertEquals(2L, result.hits().get(0).productId());
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesFirst() {
+        ProductSearchIndex.Result result = index.search("巧克力", 10);
+        assertEquals(5L, result.hits().get(0).productId());
+
+        ProductSearchIndex.Result cakes = index.search("蛋糕", 10);
+        assertEquals(3, cakes.total());
+        assertFalse(cakes.hits().stream().anyMatch(hit -> hit.productId() == 4L));
+    }
+
+    @Test
+    void search_ShouldFallBackToAnyTerm() {
+        ProductSearchIndex.Result result = index.search("草莓 面包", 10);
+
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void add_ShouldReplaceAndRemoveShouldDrop() {
+        index.add(product(4L, "全麦吐司", "健康早餐", "tag3"));
+        assertEquals(0, index.search("法式", 10).total());
+        assertEquals(1, index.search("吐司", 10).total());
+
+        index.remove(4L);
+        assertEquals(0, index.search("吐司", 10).total());
+    }
+
+    private static Product product(Long id, String name, String description, String tags) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setTags(tags);
+        return product;
+    }
+}
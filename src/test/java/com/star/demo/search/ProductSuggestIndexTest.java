@@ -0,0 +1,76 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex();
+        index.loadPopularity(Map.of(2L, 50L, 3L, 5L));
+        index.add(product(1L, "水果蛋糕"));
+        index.add(product(2L, "水果蛋糕（草莓）"));
+        index.add(product(3L, "水果沙拉"));
+        index.add(product(4L, "Chocolate Cake"));
+    }
+
+    @Test
+    void suggest_ShouldRankByPopularity() {
+        assertEquals(List.of(2L, 3L, 1L), ids(index.suggest("水果", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.suggest("水果蛋", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("水", 1)));
+    }
+
+    @Test
+    void suggest_ShouldNormalizeCaseAndWidth() {
+        assertEquals(List.of(4L), ids(index.suggest("ＣＨＯＣ", 10)));
+        assertEquals("Chocolate Cake", index.suggest("choc", 10).get(0).name());
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixesLongerThanTrieDepth() {
+        index.add(product(5L, "超长名称的商品用来测试字典树深度限制A"));
+        index.add(product(6L, "超长名称的商品用来测试字典树深度限制B"));
+
+        assertEquals(List.of(6L), ids(index.suggest("超长名称的商品用来测试字典树深度限制b", 10)));
+        assertEquals(2, index.suggest("超长名称的商品用来测试字典树", 10).size());
+    }
+
+    @Test
+    void recordSales_ShouldPromoteProduct() {
+        index.recordSales(1L, 100);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("水果", 10)));
+    }
+
+    @Test
+    void removeAndRename_ShouldUpdateSuggestions() {
+        index.remove(2L);
+        assertEquals(List.of(3L, 1L), ids(index.suggest("水果", 10)));
+
+        index.add(product(3L, "蔬菜沙拉"));
+        assertEquals(List.of(1L), ids(index.suggest("水果", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("蔬菜", 10)));
+        assertTrue(index.suggest("水果沙", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<ProductSuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestIndex.Suggestion::productId).toList();
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,98 @@
+package com.star.demo.search;
+
+import com.star.demo.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTagIndexTest {
+
+    private ProductTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductTagIndex();
+        index.add(product(1L, "tag1,tag2"));
+        index.add(product(2L, "tag1,tag3"));
+        index.add(product(3L, "tag2,tag3"));
+    }
+
+    @Test
+    void normalize_ShouldTrimLowercaseAndDeduplicate() {
+        assertEquals("cake,新品,fruit", ProductTagIndex.normalize(" Cake，新品, ,cake,FRUIT "));
+        assertNull(ProductTagIndex.normalize(null));
+    }
+
+    @Test
+    void query_And_ShouldIntersect() {
+        ProductTagIndex.Match match = index.query(List.of("tag1", "tag2"), true, 0, 10);
+
+        assertEquals(1, match.total());
+        assertEquals(List.of(1L), match.productIds());
+        assertEquals(Map.of("tag1", 1L, "tag2", 1L), match.facets());
+    }
+
+    @Test
+    void query_Or_ShouldUnionAndCountFacets() {
+        ProductTagIndex.Match match = index.query(List.of("tag1", "unknown"), false, 0, 10);
+
+        assertEquals(2, match.total());
+        assertEquals(List.of(1L, 2L), match.productIds());
+        assertEquals(2L, match.facets().get("tag1"));
+        assertEquals(1L, match.facets().get("tag2"));
+        assertEquals(1L, match.facets().get("tag3"));
+    }
+
+    @Test
+    void query_ShouldPageInIdOrder() {
+        ProductTagIndex.Match match = index.query(List.of("tag1", "tag2", "tag3"), false, 1, 1);
+
+        assertEquals(3, match.total());
+        assertEquals(List.of(2L), match.productIds());
+    }
+
+    @Test
+    void query_SmallResultShouldCountOnlyTagsOfHits() {
+        // 标签数远多于命中数，按命中商品自身的标签计数
+        for (long id = 100; id < 200; id++) {
+            index.add(product(id, "unique" + id));
+        }
+
+        ProductTagIndex.Match match = index.query(List.of("tag1"), true, 0, 10);
+
+        assertEquals(Map.of("tag1", 2L, "tag2", 1L, "tag3", 1L), match.facets());
+    }
+
+    @Test
+    void query_LargeResultShouldCountFacetsByBitmaps() {
+        for (long id = 100; id < 200; id++) {
+            index.add(product(id, id % 2 == 0 ? "common,even" : "common"));
+        }
+
+        ProductTagIndex.Match match = index.query(List.of("common"), true, 0, 10);
+
+        assertEquals(100, match.total());
+        assertEquals(Map.of("common", 100L, "even", 50L), match.facets());
+    }
+
+    @Test
+    void add_ShouldReplaceOldTagsAndRemoveShouldDropProduct() {
+        index.add(product(1L, "tag4"));
+        assertEquals(List.of(2L), index.query(List.of("tag1"), true, 0, 10).productIds());
+        assertEquals(List.of(1L), index.query(List.of("tag4"), true, 0, 10).productIds());
+
+        index.remove(1L);
+        assertEquals(0, index.query(List.of("tag4"), true, 0, 10).total());
+    }
+
+    private static Product product(Long id, String tags) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTags(tags);
+        return product;
+    }
+}
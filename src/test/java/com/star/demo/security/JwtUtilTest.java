@@ -0,0 +1,68 @@
+package com.star.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "0000000000000000000000000000YOU_NEED_TO_CHANGE_IT000000000");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationInSeconds", 86400L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "renewWindowInSeconds", 3600L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        jwtUtil.init();
+    }
+
+    @Test
+    void renewToken_ShouldKeepTokenOutsideWindow() {
+        AuthenticatedUser current = current(Instant.now().plusSeconds(7200), "USER");
+
+        assertSame(current.getToken(), jwtUtil.renewToken(current, "a@example.com", 1L, "USER"));
+        assertEquals(1, meterRegistry.get("jwt.renewals").tag("result", "reused").counter().count());
+        assertEquals(0, meterRegistry.get("jwt.signed").counter().count());
+    }
+
+    @Test
+    void renewToken_ShouldReissueInsideWindow() {
+        AuthenticatedUser current = current(Instant.now().plusSeconds(600), "USER");
+
+        String token = jwtUtil.renewToken(current, "a@example.com", 1L, "USER");
+
+        assertNotEquals(current.getToken(), token);
+        assertTrue(jwtUtil.validateToken(token));
+        assertEquals(1, meterRegistry.get("jwt.signed").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.renewals").tag("result", "renewed").counter().count());
+    }
+
+    @Test
+    void renewToken_ShouldReissueWhenRoleChanged() {
+        AuthenticatedUser current = current(Instant.now().plusSeconds(7200), "USER");
+
+        String token = jwtUtil.renewToken(current, "a@example.com", 1L, "ADMIN");
+
+        assertEquals("ADMIN", jwtUtil.extractRole(token));
+    }
+
+    private AuthenticatedUser current(Instant expiresAt, String role) {
+        return AuthenticatedUser.builder()
+            .userId(1L)
+            .email("a@example.com")
+            .role(role)
+            .token("current-token")
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
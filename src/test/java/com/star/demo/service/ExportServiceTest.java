@@ -0,0 +1,83 @@
+package com.star.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.star.demo.mapper.OrderMapper;
+import com.star.demo.model.Order;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mybatis.spring.MyBatisSystemException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(exportService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        when(orderRepository.getBaseMapper()).thenReturn(orderMapper);
+        // 模拟 MyBatis：逐行回调 ResultHandler，回调抛出的异常按 DefaultSqlSession / SqlSessionTemplate 的方式包装
+        doAnswer(invocation -> {
+            ResultHandler<Order> handler = invocation.getArgument(0);
+            ResultContext<Order> context = mock(ResultContext.class);
+            for (long id = 1; id <= 10_000; id++) {
+                Order order = new Order();
+                order.setId(id);
+                order.setStatus("PENDING");
+                doReturn(order).when(context).getResultObject();
+                try {
+                    handler.handleResult(context);
+                } catch (RuntimeException e) {
+                    throw new MyBatisSystemException(new PersistenceException(e));
+                }
+            }
+            return null;
+        }).when(orderMapper).streamAll(any());
+    }
+
+    @Test
+    void exportOrders_ShouldWriteAllRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportOrders(ExportService.Format.CSV, out);
+
+        assertEquals(10_001, out.toString().split("\r\n").length);
+    }
+
+    @Test
+    void exportOrders_ShouldRethrowClientAbortAsIOException() {
+        OutputStream aborted = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class,
+            () -> exportService.exportOrders(ExportService.Format.NDJSON, aborted));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+}
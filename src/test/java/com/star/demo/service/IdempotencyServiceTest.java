@@ -0,0 +1,95 @@
+package com.star.demo.service;
+
+import com.star.demo.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void execute_ShouldReplayFirstResult() {
+        AtomicInteger executions = new AtomicInteger();
+
+        Integer first = idempotencyService.execute("key", "body", executions::incrementAndGet);
+        Integer second = idempotencyService.execute("key", "body", executions::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        idempotencyService.execute("key", "body", () -> 1);
+
+        assertThrows(BusinessException.class, () -> idempotencyService.execute("key", "other body", () -> 2));
+    }
+
+    @Test
+    void execute_ShouldAllowRetryAfterFailure() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key", "body", () -> {
+            throw new IllegalStateException("失败");
+        }));
+
+        Integer retried = idempotencyService.execute("key", "body", () -> 2);
+        assertEquals(2, retried);
+    }
+
+    @Test
+    void execute_ShouldAllowRetryAfterError() {
+        assertThrows(StackOverflowError.class, () -> idempotencyService.execute("key", "body", () -> {
+            throw new StackOverflowError();
+        }));
+
+        Integer retried = idempotencyService.execute("key", "body", () -> 2);
+        assertEquals(2, retried);
+    }
+
+    @Test
+    void execute_ConcurrentDuplicatesShouldWaitForInFlightResult() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<Integer> first = executor.submit(() -> idempotencyService.execute("key", "body", () -> {
+            running.countDown();
+            awaitQuietly(release);
+            return executions.incrementAndGet();
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<Integer> duplicate = executor.submit(() -> idempotencyService.execute("key", "body", executions::incrementAndGet));
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.star.demo.service;
+
+import com.star.demo.common.ErrorCode;
+import com.star.demo.exception.BusinessException;
+import com.star.demo.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OrderIngestionServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderIngestionService orderIngestionService;
+
+    private final List<Long> committed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderIngestionService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(orderIngestionService, "enabled", true);
+        ReflectionTestUtils.setField(orderIngestionService, "queueCapacity", 100);
+        ReflectionTestUtils.setField(orderIngestionService, "maxBatchSize", 1);
+        ReflectionTestUtils.setField(orderIngestionService, "maxWait", Duration.ZERO);
+        ReflectionTestUtils.setField(orderIngestionService, "writers", 1);
+        ReflectionTestUtils.setField(orderIngestionService, "submitTimeout", Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIngestionService.stop();
+    }
+
+    @Test
+    void submit_ShouldNotCommitOrderThatTimedOutInQueue() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            firstBatchStarted.countDown();
+            release.await();
+            orders.forEach(order -> committed.add(order.getId()));
+            return orders;
+        }).when(orderService).createOrders(anyList());
+        orderIngestionService.start();
+
+        // 第一个订单占住写入线程，直到第二个订单超时
+        CompletableFuture<Order> first = CompletableFuture.supplyAsync(() -> orderIngestionService.submit(order(1L)));
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        BusinessException e = assertThrows(BusinessException.class, () -> orderIngestionService.submit(order(2L)));
+        assertEquals(ErrorCode.SERVICE_BUSY, e.getErrorCode());
+
+        release.countDown();
+        // 第一个订单虽已超时，但已在提交中的批次里，调用方等到了最终结果
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+        Thread.sleep(200);
+        assertEquals(List.of(1L), committed);
+    }
+
+    @Test
+    void writer_ShouldSurviveErrorAndFailItsBatch() {
+        doThrow(new StackOverflowError())
+            .doAnswer(invocation -> invocation.getArgument(0))
+            .when(orderService).createOrders(anyList());
+        orderIngestionService.start();
+
+        BusinessException e = assertThrows(BusinessException.class, () -> orderIngestionService.submit(order(1L)));
+        assertEquals(ErrorCode.SYSTEM_ERROR, e.getErrorCode());
+        assertEquals(2L, orderIngestionService.submit(order(2L)).getId());
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        return order;
+    }
+}
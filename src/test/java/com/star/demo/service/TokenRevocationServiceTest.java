@@ -0,0 +1,129 @@
+package com.star.demo.service;
+
+import com.star.demo.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenRevocationService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+        tokenRevocationService.init();
+    }
+
+    @Test
+    void revoke_ShouldRejectTokenOnThisNode() {
+        when(revokedTokenRepository.isRevoked("jti-1")).thenReturn(true);
+
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        verify(revokedTokenRepository).revoke(eq("jti-1"), any());
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void isRevoked_ShouldNotQueryDatabaseForUnknownTokens() {
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        assertFalse(tokenRevocationService.isRevoked("jti-2"));
+        verify(revokedTokenRepository, never()).isRevoked(anyString());
+    }
+
+    @Test
+    void nullTokenId_ShouldBeIgnored() {
+        tokenRevocationService.revoke(null, Instant.now().plusSeconds(3600));
+
+        assertFalse(tokenRevocationService.isRevoked(null));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void revoke_ShouldSkipExpiredTokens() {
+        tokenRevocationService.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void isRevoked_ShouldTrustDatabaseWhenRecordExpired() {
+        // 过滤器仍包含已过期的 jti，查表 (只查未过期记录) 后放行
+        when(revokedTokenRepository.isRevoked("jti-1")).thenReturn(false);
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void isRevoked_ShouldFailClosedWhenDatabaseUnavailable() {
+        when(revokedTokenRepository.isRevoked("jti-1")).thenThrow(new RuntimeException("connection refused"));
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void rebuild_ShouldDropExpiredAndReloadFilter() {
+        when(revokedTokenRepository.listJtis()).thenReturn(List.of("jti-2"));
+        when(revokedTokenRepository.isRevoked("jti-2")).thenReturn(true);
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        tokenRevocationService.rebuild();
+
+        verify(revokedTokenRepository).removeExpired();
+        assertTrue(tokenRevocationService.isRevoked("jti-2"));
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+        verify(revokedTokenRepository, never()).isRevoked("jti-1");
+    }
+
+    @Test
+    void isRevoked_ShouldNotCacheDatabaseFailures() {
+        when(revokedTokenRepository.isRevoked("jti-1"))
+            .thenThrow(new RuntimeException("connection refused"))
+            .thenReturn(false);
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(3600));
+
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void rebuild_ShouldKeepRevocationsMadeDuringRebuild() {
+        when(revokedTokenRepository.isRevoked("jti-3")).thenReturn(true);
+        // 读取快照之后才写入的吊销，不在 listJtis 的结果中
+        when(revokedTokenRepository.listJtis()).thenAnswer(invocation -> {
+            tokenRevocationService.revoke("jti-3", Instant.now().plusSeconds(3600));
+            return List.of();
+        });
+
+        tokenRevocationService.rebuild();
+
+        assertTrue(tokenRevocationService.isRevoked("jti-3"));
+    }
+}